@@ -0,0 +1,106 @@
+/*
+ * Copyright 2014-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import groovy.util.Node;
+import groovy.xml.XmlParser;
+import io.spring.gradle.dependencymanagement.internal.DependencyManagementSettings.PomCustomizationSettings;
+import io.spring.gradle.dependencymanagement.internal.maven.MavenPomResolver;
+import io.spring.gradle.dependencymanagement.internal.pom.Coordinates;
+import io.spring.gradle.dependencymanagement.internal.properties.MapPropertySource;
+import org.gradle.api.Project;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks {@link StandardPomDependencyManagementConfigurer#configurePom} for a project
+ * that imports a bom of a similar size to Spring Boot's and that declares further managed
+ * versions of its own.
+ *
+ * @author Andy Wilkinson
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+public class ConfigurePomBenchmark {
+
+	private static final String POM = "<project xmlns=\"http://maven.apache.org/POM/4.0.0\"><dependencies>"
+			+ "<dependency><groupId>benchmark</groupId><artifactId>spring-boot-1</artifactId></dependency>"
+			+ "</dependencies></project>";
+
+	@Param({ "0", "200" })
+	public int managedVersions;
+
+	private SyntheticMavenRepository repository;
+
+	private StandardPomDependencyManagementConfigurer configurer;
+
+	private Node pom;
+
+	@Setup(Level.Trial)
+	public void createConfigurer() throws Exception {
+		this.repository = SyntheticMavenRepository.create();
+		Coordinates bom = this.repository.bom("spring-boot", 1200, 40, 30);
+		Project project = this.repository.createProject();
+		MavenPomResolver pomResolver = new MavenPomResolver(project,
+				new DependencyManagementConfigurationContainer(project));
+		DependencyManagementContainer container = new DependencyManagementContainer(project, pomResolver);
+		container.importBom(null, bom, new MapPropertySource(Collections.emptyMap()));
+		for (int i = 0; i < this.managedVersions; i++) {
+			container.addManagedVersion(null, SyntheticMavenRepository.GROUP, "managed-" + i, "1.0." + i,
+					Collections.singletonList(new Exclusion(SyntheticMavenRepository.GROUP, "excluded-" + i)));
+		}
+		DependencyManagement dependencyManagement = container.getGlobalDependencyManagement();
+		this.configurer = new StandardPomDependencyManagementConfigurer(
+				project.provider(dependencyManagement::snapshot), new PomCustomizationSettings());
+		this.configurer.configurePom(new XmlParser().parseText(POM));
+	}
+
+	@Setup(Level.Invocation)
+	public void parsePom() throws Exception {
+		this.pom = new XmlParser().parseText(POM);
+	}
+
+	@TearDown(Level.Trial)
+	public void deleteRepository() {
+		this.repository.delete();
+	}
+
+	@Benchmark
+	public Node configurePom() {
+		this.configurer.configurePom(this.pom);
+		return this.pom;
+	}
+
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2014-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import io.spring.gradle.dependencymanagement.internal.maven.MavenPomResolver;
+import io.spring.gradle.dependencymanagement.internal.pom.Coordinates;
+import io.spring.gradle.dependencymanagement.internal.properties.MapPropertySource;
+import org.gradle.api.Project;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the resolution of {@link DependencyManagement} that imports a large bom.
+ * Each measurement uses a new project so that the boms' effective models are built
+ * rather than being retrieved from the build-wide cache. Resolution with Maven's model
+ * builder is compared with lightweight resolution.
+ *
+ * @author Andy Wilkinson
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 10)
+@Measurement(iterations = 20)
+public class DependencyManagementResolveBenchmark {
+
+	@Param
+	public BomShape shape;
+
+	@Param({ "false", "true" })
+	public boolean lightweight;
+
+	private SyntheticMavenRepository repository;
+
+	private Coordinates bom;
+
+	private DependencyManagement dependencyManagement;
+
+	@Setup(Level.Trial)
+	public void createRepository() {
+		this.repository = SyntheticMavenRepository.create();
+		this.bom = this.shape.write(this.repository);
+	}
+
+	@Setup(Level.Iteration)
+	public void createDependencyManagement() {
+		Project project = this.repository.createProject();
+		DependencyManagementSettings settings = new DependencyManagementSettings();
+		settings.setLightweightBomResolution(this.lightweight);
+		MavenPomResolver pomResolver = new MavenPomResolver(project,
+				new DependencyManagementConfigurationContainer(project), settings);
+		this.dependencyManagement = new DependencyManagement(project, pomResolver);
+		this.dependencyManagement.importBom(this.bom, new MapPropertySource(Collections.emptyMap()));
+	}
+
+	@TearDown(Level.Trial)
+	public void deleteRepository() {
+		this.repository.delete();
+	}
+
+	@Benchmark
+	public Map<String, String> resolve() {
+		return this.dependencyManagement.getManagedVersions();
+	}
+
+	/**
+	 * The shapes of bom that are benchmarked, modelled on the boms of well-known
+	 * projects.
+	 */
+	public enum BomShape {
+
+		/**
+		 * A single bom with a modest number of managed dependencies, similar to Jakarta
+		 * EE's bom.
+		 */
+		JAKARTA_EE(100, 0, 0),
+
+		/**
+		 * A bom that manages little itself and imports many other boms, similar to Spring
+		 * Cloud's bom.
+		 */
+		SPRING_CLOUD(10, 25, 40),
+
+		/**
+		 * A bom with many managed dependencies that also imports many other boms, similar
+		 * to Spring Boot's bom.
+		 */
+		SPRING_BOOT(1200, 40, 30);
+
+		private final int managedDependencies;
+
+		private final int importedBoms;
+
+		private final int importedManagedDependencies;
+
+		BomShape(int managedDependencies, int importedBoms, int importedManagedDependencies) {
+			this.managedDependencies = managedDependencies;
+			this.importedBoms = importedBoms;
+			this.importedManagedDependencies = importedManagedDependencies;
+		}
+
+		Coordinates write(SyntheticMavenRepository repository) {
+			return repository.bom(name().toLowerCase().replace('_', '-'), this.managedDependencies, this.importedBoms,
+					this.importedManagedDependencies);
+		}
+
+	}
+
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2014-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import io.spring.gradle.dependencymanagement.internal.maven.MavenPomResolver;
+import io.spring.gradle.dependencymanagement.internal.pom.Coordinates;
+import org.gradle.api.Project;
+import org.gradle.api.artifacts.Configuration;
+import org.gradle.api.artifacts.result.ResolutionResult;
+import org.gradle.api.artifacts.result.ResolvedComponentResult;
+import org.gradle.api.provider.Provider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks {@link ExclusionConfiguringAction#determineIncludedComponents} on a
+ * resolved dependency graph with Maven exclusions declared throughout.
+ *
+ * @author Andy Wilkinson
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+public class DetermineIncludedComponentsBenchmark {
+
+	@Param({ "500", "2000" })
+	public int modules;
+
+	private SyntheticMavenRepository repository;
+
+	private ExclusionConfiguringAction action;
+
+	private ResolvedComponentResult root;
+
+	private Map<String, Exclusions> pomExclusions;
+
+	@Setup(Level.Trial)
+	public void resolveDependencyGraph() {
+		this.repository = SyntheticMavenRepository.create();
+		Coordinates root = this.repository.dependencyGraph("graph", this.modules);
+		Project project = this.repository.createProject();
+		DependencyManagementConfigurationContainer configurations = new DependencyManagementConfigurationContainer(
+				project);
+		MavenPomResolver pomResolver = new MavenPomResolver(project, configurations);
+		DependencyManagementContainer container = new DependencyManagementContainer(project, pomResolver);
+		Provider<DependencyManagementMetrics> metrics = DependencyManagementMetrics.register(project);
+		ExclusionResolver exclusionResolver = new ExclusionResolver(pomResolver,
+				PomExclusionsCache.register(project.getGradle()), metrics);
+		Configuration configuration = project.getConfigurations().create("benchmark");
+		configuration.getDependencies()
+			.add(project.getDependencies()
+				.create(root.getGroupId() + ":" + root.getArtifactId() + ":" + root.getVersion()));
+		ResolutionResult resolutionResult = configuration.getIncoming().getResolutionResult();
+		this.root = resolutionResult.getRoot();
+		this.pomExclusions = exclusionResolver.resolveExclusions(resolutionResult.getAllComponents());
+		this.action = new ExclusionConfiguringAction(new DependencyManagementSettings(), container,
+				configurations, configuration, exclusionResolver, null, metrics,
+				DependencyManagementMetrics.path(project, configuration), new DependencyManagementProfiler());
+	}
+
+	@TearDown(Level.Trial)
+	public void deleteRepository() {
+		this.repository.delete();
+	}
+
+	@Benchmark
+	public Object determineIncludedComponents() {
+		return this.action.determineIncludedComponents(this.root, this.pomExclusions);
+	}
+
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2014-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import io.spring.gradle.dependencymanagement.internal.maven.MavenPomResolver;
+import org.gradle.api.Project;
+import org.gradle.api.artifacts.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks the lookup of managed versions for a configuration at the bottom of a deep
+ * configuration hierarchy. Global dependency management is of a similar size to Spring
+ * Boot's bom and each configuration in the hierarchy adds further managed versions.
+ *
+ * @author Andy Wilkinson
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+public class ManagedVersionLookupBenchmark {
+
+	private static final int GLOBAL_MANAGED_VERSIONS = 1500;
+
+	private static final int MANAGED_VERSIONS_PER_CONFIGURATION = 50;
+
+	@Param({ "1", "8", "32" })
+	public int depth;
+
+	private SyntheticMavenRepository repository;
+
+	private DependencyManagementContainer container;
+
+	private Configuration configuration;
+
+	private ManagedVersionIndex index;
+
+	private String[] names;
+
+	@Setup(Level.Trial)
+	public void createDependencyManagement() {
+		this.repository = SyntheticMavenRepository.create();
+		Project project = this.repository.createProject();
+		this.container = new DependencyManagementContainer(project,
+				new MavenPomResolver(project, new DependencyManagementConfigurationContainer(project)));
+		for (int i = 0; i < GLOBAL_MANAGED_VERSIONS; i++) {
+			this.container.addManagedVersion(null, SyntheticMavenRepository.GROUP, "global-" + i, "1.0." + i,
+					Collections.emptyList());
+		}
+		Configuration parent = null;
+		for (int level = 0; level < this.depth; level++) {
+			Configuration configuration = project.getConfigurations().create("level" + level);
+			if (parent != null) {
+				configuration.extendsFrom(parent);
+			}
+			for (int i = 0; i < MANAGED_VERSIONS_PER_CONFIGURATION; i++) {
+				this.container.addManagedVersion(configuration, SyntheticMavenRepository.GROUP,
+						"level-" + level + "-" + i, "1." + level + "." + i, Collections.emptyList());
+			}
+			parent = configuration;
+		}
+		this.configuration = parent;
+		this.index = this.container.getManagedVersionIndex(this.configuration);
+		this.names = new String[200];
+		for (int i = 0; i < this.names.length; i++) {
+			int level = i % (this.depth + 1);
+			if (i % 4 == 0) {
+				this.names[i] = "unmanaged-" + i;
+			}
+			else if (level == this.depth) {
+				this.names[i] = "global-" + (i * 7);
+			}
+			else {
+				this.names[i] = "level-" + level + "-" + (i % MANAGED_VERSIONS_PER_CONFIGURATION);
+			}
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void deleteRepository() {
+		this.repository.delete();
+	}
+
+	@Benchmark
+	public Object indexManagedVersions() {
+		return this.container.getManagedVersionIndex(this.configuration);
+	}
+
+	@Benchmark
+	public void lookUpManagedVersions(Blackhole blackhole) {
+		for (String name : this.names) {
+			blackhole.consume(this.index.getManagedVersion(SyntheticMavenRepository.GROUP, name));
+		}
+	}
+
+}
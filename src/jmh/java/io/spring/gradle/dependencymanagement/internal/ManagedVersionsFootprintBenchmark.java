@@ -0,0 +1,129 @@
+/*
+ * Copyright 2014-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.spring.gradle.dependencymanagement.internal.maven.MavenPomResolver;
+import io.spring.gradle.dependencymanagement.internal.pom.Coordinates;
+import io.spring.gradle.dependencymanagement.internal.properties.MapPropertySource;
+import org.gradle.api.Project;
+import org.gradle.api.artifacts.Configuration;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the heap that is retained by the dependency management of many configurations
+ * that each import the same bom with a similar number of managed dependencies to Spring
+ * Boot's bom. The retained heap per configuration is reported in the
+ * {@code retainedBytesPerConfiguration} secondary result.
+ *
+ * @author Andy Wilkinson
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ManagedVersionsFootprintBenchmark {
+
+	private static final int CONFIGURATIONS = 100;
+
+	private SyntheticMavenRepository repository;
+
+	private Coordinates bom;
+
+	private DependencyManagementContainer container;
+
+	private List<Configuration> configurations;
+
+	@Setup(Level.Trial)
+	public void createRepository() {
+		this.repository = SyntheticMavenRepository.create();
+		this.bom = this.repository.bom("footprint", 1500, 0, 0);
+	}
+
+	@Setup(Level.Iteration)
+	public void createDependencyManagement() {
+		Project project = this.repository.createProject();
+		this.container = new DependencyManagementContainer(project,
+				new MavenPomResolver(project, new DependencyManagementConfigurationContainer(project)));
+		this.configurations = new ArrayList<>();
+		for (int i = 0; i < CONFIGURATIONS; i++) {
+			Configuration configuration = project.getConfigurations().create("configuration" + i);
+			this.container.importBom(configuration, this.bom, new MapPropertySource(Collections.emptyMap()));
+			this.configurations.add(configuration);
+		}
+		// Resolve the bom globally so that the build-wide effective model is not measured
+		this.container.importBom(null, this.bom, new MapPropertySource(Collections.emptyMap()));
+		this.container.getManagedVersionsForConfiguration(null, false);
+	}
+
+	@TearDown(Level.Trial)
+	public void deleteRepository() {
+		this.repository.delete();
+	}
+
+	@Benchmark
+	public Object resolve(Footprint footprint) {
+		long before = usedHeap();
+		for (Configuration configuration : this.configurations) {
+			this.container.getManagedVersionsForConfiguration(configuration, false);
+		}
+		footprint.retainedBytesPerConfiguration = (usedHeap() - before) / CONFIGURATIONS;
+		return this.container;
+	}
+
+	private static long usedHeap() {
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+	}
+
+	/**
+	 * The heap footprint of an iteration.
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class Footprint {
+
+		/**
+		 * The heap, in bytes, retained by the dependency management of each
+		 * configuration.
+		 */
+		public long retainedBytesPerConfiguration;
+
+	}
+
+}
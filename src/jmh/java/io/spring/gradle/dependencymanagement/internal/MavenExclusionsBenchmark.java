@@ -0,0 +1,99 @@
+/*
+ * Copyright 2014-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import io.spring.gradle.dependencymanagement.DependencyManagementPlugin;
+import io.spring.gradle.dependencymanagement.internal.dsl.StandardDependencyManagementExtension;
+import io.spring.gradle.dependencymanagement.internal.pom.Coordinates;
+import org.gradle.api.Project;
+import org.gradle.api.artifacts.Configuration;
+import org.gradle.api.artifacts.result.ResolvedComponentResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the resolution of a configuration with Maven exclusions applied, comparing
+ * the default mode, which resolves a copy of the configuration first, with
+ * {@link StandardDependencyManagementExtension#setSinglePassMavenExclusions(boolean)
+ * single-pass}
+ * mode.
+ *
+ * @author Andy Wilkinson
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 10)
+@Measurement(iterations = 20)
+public class MavenExclusionsBenchmark {
+
+	@Param({ "false", "true" })
+	public boolean singlePass;
+
+	private SyntheticMavenRepository repository;
+
+	private Coordinates root;
+
+	private Project project;
+
+	private Configuration configuration;
+
+	@Setup(Level.Trial)
+	public void createProject() {
+		this.repository = SyntheticMavenRepository.create();
+		this.root = this.repository.dependencyGraph("graph", 2000);
+		this.project = this.repository.createProject();
+		this.project.getPlugins().apply(DependencyManagementPlugin.class);
+		this.project.getExtensions()
+			.getByType(StandardDependencyManagementExtension.class)
+			.setSinglePassMavenExclusions(this.singlePass);
+	}
+
+	@Setup(Level.Iteration)
+	public void createConfiguration() {
+		this.configuration = this.project.getConfigurations().create("benchmark" + System.nanoTime());
+		this.configuration.getDependencies()
+			.add(this.project.getDependencies()
+				.create(this.root.getGroupId() + ":" + this.root.getArtifactId() + ":" + this.root.getVersion()));
+	}
+
+	@TearDown(Level.Trial)
+	public void deleteRepository() {
+		this.repository.delete();
+	}
+
+	@Benchmark
+	public Set<ResolvedComponentResult> resolve() {
+		return this.configuration.getIncoming().getResolutionResult().getAllComponents();
+	}
+
+}
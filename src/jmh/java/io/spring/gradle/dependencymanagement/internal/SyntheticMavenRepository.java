@@ -0,0 +1,237 @@
+/*
+ * Copyright 2014-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+
+import io.spring.gradle.dependencymanagement.internal.pom.Coordinates;
+import org.gradle.api.Project;
+import org.gradle.testfixtures.ProjectBuilder;
+
+/**
+ * A Maven repository of synthetic poms, laid out in the same way as the
+ * {@code maven-repo} that is used by the tests, that is generated in a temporary
+ * directory for use by the benchmarks.
+ *
+ * @author Andy Wilkinson
+ */
+final class SyntheticMavenRepository {
+
+	static final String GROUP = "benchmark";
+
+	private static final String VERSION = "1.0";
+
+	private final File root;
+
+	private SyntheticMavenRepository(File root) {
+		this.root = root;
+	}
+
+	/**
+	 * Creates a new, empty repository in a temporary directory.
+	 * @return the repository
+	 */
+	static SyntheticMavenRepository create() {
+		try {
+			return new SyntheticMavenRepository(
+					Files.createTempDirectory("dependency-management-benchmark").toFile());
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	/**
+	 * Creates a new project that uses this repository. The project's Gradle user home is
+	 * also located in the repository's temporary directory.
+	 * @return the project
+	 */
+	Project createProject() {
+		File projectDir = new File(this.root, "projects/" + System.nanoTime());
+		Project project = ProjectBuilder.builder()
+			.withProjectDir(projectDir)
+			.withGradleUserHomeDir(new File(this.root, "gradle-user-home"))
+			.build();
+		project.getRepositories().maven((repository) -> repository.setUrl(new File(this.root, "repository")));
+		return project;
+	}
+
+	/**
+	 * Writes a bom named {@code name} that has a parent pom, the given number of
+	 * {@code managedDependencies} with versions provided by properties, and the given
+	 * number of {@code importedBoms} that each have the given number of
+	 * {@code importedManagedDependencies}. Every fifth managed dependency declares an
+	 * exclusion.
+	 * @param name the name of the bom
+	 * @param managedDependencies the number of managed dependencies declared in the bom
+	 * @param importedBoms the number of boms imported by the bom
+	 * @param importedManagedDependencies the number of managed dependencies declared in
+	 * each imported bom
+	 * @return the coordinates of the bom
+	 */
+	Coordinates bom(String name, int managedDependencies, int importedBoms, int importedManagedDependencies) {
+		StringBuilder parent = new StringBuilder();
+		parent.append("\t<properties>\n");
+		for (int i = 0; i < managedDependencies; i++) {
+			parent.append("\t\t<").append(name).append("-").append(i).append(".version>1.0.").append(i);
+			parent.append("</").append(name).append("-").append(i).append(".version>\n");
+		}
+		parent.append("\t</properties>\n");
+		writePom(name + "-parent", null, parent.toString());
+		StringBuilder bom = new StringBuilder();
+		bom.append("\t<dependencyManagement>\n");
+		bom.append("\t\t<dependencies>\n");
+		for (int i = 0; i < managedDependencies; i++) {
+			String exclusion = (i % 5 == 0) ? name + "-" + (i + 1) : null;
+			appendDependency(bom, "\t\t\t", name + "-" + i, "${" + name + "-" + i + ".version}", null, exclusion);
+		}
+		for (int i = 0; i < importedBoms; i++) {
+			String importedBom = name + "-imported-" + i;
+			StringBuilder imported = new StringBuilder();
+			imported.append("\t<dependencyManagement>\n");
+			imported.append("\t\t<dependencies>\n");
+			for (int j = 0; j < importedManagedDependencies; j++) {
+				appendDependency(imported, "\t\t\t", importedBom + "-" + j, VERSION, null, null);
+			}
+			imported.append("\t\t</dependencies>\n");
+			imported.append("\t</dependencyManagement>\n");
+			writePom(importedBom, null, imported.toString());
+			appendDependency(bom, "\t\t\t", importedBom, VERSION, "import", null);
+		}
+		bom.append("\t\t</dependencies>\n");
+		bom.append("\t</dependencyManagement>\n");
+		writePom(name, name + "-parent", bom.toString());
+		return new Coordinates(GROUP, name, VERSION);
+	}
+
+	/**
+	 * Writes a graph of {@code modules} modules named {@code name-0} to
+	 * {@code name-<modules - 1>}. Each module depends upon the two modules below it in a
+	 * binary tree rooted at {@code name-0} and upon one further module elsewhere in the
+	 * graph. Every tenth dependency declares an exclusion of a module that is also
+	 * reachable by another path.
+	 * @param name the name of the graph
+	 * @param modules the number of modules
+	 * @return the coordinates of the graph's root module
+	 */
+	Coordinates dependencyGraph(String name, int modules) {
+		for (int i = 0; i < modules; i++) {
+			StringBuilder dependencies = new StringBuilder();
+			dependencies.append("\t<dependencies>\n");
+			int[] children = { 2 * i + 1, 2 * i + 2, (i * 31 + 7) % modules };
+			for (int j = 0; j < children.length; j++) {
+				int child = children[j];
+				boolean include = (j < 2) ? child < modules : child > 2 * i + 2;
+				if (include) {
+					String exclusion = (child % 10 == 1) ? name + "-" + ((child * 13) % modules) : null;
+					appendDependency(dependencies, "\t\t", name + "-" + child, VERSION, null, exclusion);
+				}
+			}
+			dependencies.append("\t</dependencies>\n");
+			writePom(name + "-" + i, null, dependencies.toString());
+		}
+		return new Coordinates(GROUP, name + "-0", VERSION);
+	}
+
+	/**
+	 * Deletes the repository and everything else in its temporary directory.
+	 */
+	void delete() {
+		try {
+			Files.walkFileTree(this.root.toPath(), new SimpleFileVisitor<Path>() {
+
+				@Override
+				public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) throws IOException {
+					Files.delete(file);
+					return FileVisitResult.CONTINUE;
+				}
+
+				@Override
+				public FileVisitResult postVisitDirectory(Path dir, IOException ex) throws IOException {
+					Files.delete(dir);
+					return FileVisitResult.CONTINUE;
+				}
+
+			});
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	private void appendDependency(StringBuilder pom, String indent, String artifactId, String version, String scope,
+			String exclusion) {
+		pom.append(indent).append("<dependency>\n");
+		pom.append(indent).append("\t<groupId>").append(GROUP).append("</groupId>\n");
+		pom.append(indent).append("\t<artifactId>").append(artifactId).append("</artifactId>\n");
+		pom.append(indent).append("\t<version>").append(version).append("</version>\n");
+		if (scope != null) {
+			pom.append(indent).append("\t<type>pom</type>\n");
+			pom.append(indent).append("\t<scope>").append(scope).append("</scope>\n");
+		}
+		if (exclusion != null) {
+			pom.append(indent).append("\t<exclusions>\n");
+			pom.append(indent).append("\t\t<exclusion>\n");
+			pom.append(indent).append("\t\t\t<groupId>").append(GROUP).append("</groupId>\n");
+			pom.append(indent).append("\t\t\t<artifactId>").append(exclusion).append("</artifactId>\n");
+			pom.append(indent).append("\t\t</exclusion>\n");
+			pom.append(indent).append("\t</exclusions>\n");
+		}
+		pom.append(indent).append("</dependency>\n");
+	}
+
+	private void writePom(String artifactId, String parentArtifactId, String content) {
+		StringBuilder pom = new StringBuilder();
+		pom.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+		pom.append("<project xmlns=\"http://maven.apache.org/POM/4.0.0\" ");
+		pom.append("xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"\n");
+		pom.append("\t\t xsi:schemaLocation=\"http://maven.apache.org/POM/4.0.0 ");
+		pom.append("https://maven.apache.org/xsd/maven-4.0.0.xsd\">\n");
+		pom.append("\t<modelVersion>4.0.0</modelVersion>\n\n");
+		if (parentArtifactId != null) {
+			pom.append("\t<parent>\n");
+			pom.append("\t\t<groupId>").append(GROUP).append("</groupId>\n");
+			pom.append("\t\t<artifactId>").append(parentArtifactId).append("</artifactId>\n");
+			pom.append("\t\t<version>").append(VERSION).append("</version>\n");
+			pom.append("\t</parent>\n\n");
+		}
+		pom.append("\t<groupId>").append(GROUP).append("</groupId>\n");
+		pom.append("\t<artifactId>").append(artifactId).append("</artifactId>\n");
+		pom.append("\t<version>").append(VERSION).append("</version>\n");
+		pom.append("\t<packaging>pom</packaging>\n\n");
+		pom.append(content);
+		pom.append("\n</project>\n");
+		File file = new File(this.root,
+				"repository/" + GROUP + "/" + artifactId + "/" + VERSION + "/" + artifactId + "-" + VERSION + ".pom");
+		try {
+			Files.createDirectories(file.getParentFile().toPath());
+			Files.write(file.toPath(), pom.toString().getBytes(StandardCharsets.UTF_8));
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2022 the original author or authors.
+ * Copyright 2014-2024 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -39,8 +39,9 @@ public class DependencyManagementPlugin implements Plugin<Project> {
 			.getDependencyManagementExtension();
 		project.getExtensions().add("dependencyManagement", dependencyManagementExtension);
 		internalComponents.createDependencyManagementReportTask("dependencyManagement");
-		project.getConfigurations().all(internalComponents.getImplicitDependencyManagementCollector());
-		project.getConfigurations().all(internalComponents.getDependencyManagementApplier());
+		internalComponents.createDependencyManagementProfileTask("dependencyManagementProfile");
+		project.getConfigurations().configureEach(internalComponents.getImplicitDependencyManagementCollector());
+		project.getConfigurations().configureEach(internalComponents.getDependencyManagementApplier());
 		configurePomCustomization(project, dependencyManagementExtension);
 	}
 
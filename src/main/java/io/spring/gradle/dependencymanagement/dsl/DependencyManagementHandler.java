@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2022 the original author or authors.
+ * Copyright 2014-2024 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,9 @@ package io.spring.gradle.dependencymanagement.dsl;
 
 import java.util.Map;
 
+import org.gradle.api.provider.Provider;
+import org.gradle.api.provider.ProviderFactory;
+
 /**
  * A handler for configuring and accessing dependency management.
  *
@@ -40,4 +43,42 @@ public interface DependencyManagementHandler extends DependencyManagementConfigu
 	 */
 	Map<String, String> getManagedVersions();
 
+	/**
+	 * Returns a provider, created using the given {@code providers}, of the properties
+	 * from any imported boms. Unlike {@link #getImportedProperties()}, the imported boms
+	 * are not resolved until the provider's value is queried.
+	 * @param providers the factory used to create the provider
+	 * @return provider of the imported properties
+	 */
+	default Provider<Map<String, String>> importedProperties(ProviderFactory providers) {
+		return providers.provider(this::getImportedProperties);
+	}
+
+	/**
+	 * Returns a provider, created using the given {@code providers}, of the managed
+	 * versions for the configuration associated with this handler. Unlike
+	 * {@link #getManagedVersions()}, any imported boms are not resolved until the
+	 * provider's value is queried.
+	 * @param providers the factory used to create the provider
+	 * @return provider of the managed versions
+	 */
+	default Provider<Map<String, String>> managedVersions(ProviderFactory providers) {
+		return providers.provider(this::getManagedVersions);
+	}
+
+	/**
+	 * Returns a provider, created using the given {@code providers}, of the managed
+	 * version of the dependency with the given {@code group} and {@code name} for the
+	 * configuration associated with this handler. Any imported boms are not resolved
+	 * until the provider's value is queried. The provider has no value if the dependency
+	 * is not managed.
+	 * @param group the group of the dependency
+	 * @param name the name of the dependency
+	 * @param providers the factory used to create the provider
+	 * @return provider of the managed version
+	 */
+	default Provider<String> managedVersion(String group, String name, ProviderFactory providers) {
+		return managedVersions(providers).map((versions) -> versions.get(group + ":" + name));
+	}
+
 }
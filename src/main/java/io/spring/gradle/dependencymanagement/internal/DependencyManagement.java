@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2023 the original author or authors.
+ * Copyright 2014-2024 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,12 +16,18 @@
 
 package io.spring.gradle.dependencymanagement.internal;
 
+import java.util.AbstractMap;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import io.spring.gradle.dependencymanagement.internal.pom.Coordinates;
 import io.spring.gradle.dependencymanagement.internal.pom.Dependency;
@@ -39,6 +45,18 @@ import org.slf4j.LoggerFactory;
 /**
  * Encapsulates dependency management information for a particular configuration in a
  * Gradle project.
+ * <p>
+ * The managed versions are held in two layers. The bom layer contains the versions from
+ * the imported boms, with a bom's versions taking precedence over those of any boms that
+ * were imported before it. The override layer contains versions that have been added
+ * explicitly or implicitly and takes precedence over the bom layer. Boms are resolved
+ * lazily and only once. A bom that is imported after the bom layer has been resolved is
+ * resolved and added to the layer when it is next needed, leaving the boms that have
+ * already been resolved untouched. Adding a version to the override layer never requires
+ * any boms to be resolved.
+ * <p>
+ * Dependency management is thread-safe so that configurations can be resolved in
+ * parallel.
  *
  * @author Andy Wilkinson
  */
@@ -46,25 +64,37 @@ public class DependencyManagement {
 
 	private static final Logger logger = LoggerFactory.getLogger(DependencyManagement.class);
 
+	private static final Map<Pom, ManagedVersions> bomLayers = Collections.synchronizedMap(new WeakHashMap<>());
+
 	private final Project project;
 
 	private final Configuration targetConfiguration;
 
 	private final PomResolver pomResolver;
 
-	private boolean resolved;
-
-	private final Map<String, String> versions = new HashMap<>();
+	private final Map<String, String> overrideVersions = new ConcurrentHashMap<>();
 
-	private final Map<String, String> explicitVersions = new HashMap<>();
+	private final Map<String, String> explicitVersions = new ConcurrentHashMap<>();
 
 	private final Exclusions explicitExclusions = new Exclusions();
 
 	private final Exclusions allExclusions = new Exclusions();
 
-	private final Map<String, String> bomProperties = new HashMap<>();
+	private volatile ManagedVersions bomVersions = ManagedVersions.empty();
+
+	private volatile Map<String, String> bomProperties = Collections.emptyMap();
+
+	private final List<PomReference> importedBoms = new CopyOnWriteArrayList<>();
+
+	private final Object resolutionMonitor = new Object();
+
+	private volatile int resolvedImports;
+
+	private boolean resolving;
+
+	private final List<Pom> resolvedBoms = new CopyOnWriteArrayList<>();
 
-	private final List<PomReference> importedBoms = new ArrayList<>();
+	private final Map<String, String> managedVersions;
 
 	DependencyManagement(Project project, PomResolver pomResolver) {
 		this(project, null, pomResolver);
@@ -74,14 +104,25 @@ public class DependencyManagement {
 		this.project = project;
 		this.pomResolver = pomResolver;
 		this.targetConfiguration = targetConfiguration;
+		this.managedVersions = new LayeredMap(
+				Arrays.asList(Collections.unmodifiableMap(this.overrideVersions), new BomVersionsView()));
 	}
 
 	void importBom(Coordinates coordinates, PropertySource properties) {
-		this.importedBoms.add(new PomReference(coordinates, properties));
+		synchronized (this.resolutionMonitor) {
+			this.importedBoms.add(new PomReference(coordinates, properties));
+		}
 	}
 
-	List<PomReference> getImportedBomReferences() {
-		return Collections.unmodifiableList(this.importedBoms);
+	/**
+	 * Returns the imported boms, resolved using the project's properties. The boms'
+	 * managed dependencies whose versions were overridden by those properties are
+	 * available from {@link Pom#getOverriddenManagedDependencies()}.
+	 * @return the resolved boms
+	 */
+	List<Pom> getResolvedBoms() {
+		resolveIfNecessary();
+		return Collections.unmodifiableList(this.resolvedBoms);
 	}
 
 	Map<String, String> getImportedProperties() {
@@ -90,7 +131,7 @@ public class DependencyManagement {
 	}
 
 	void addImplicitManagedVersion(String group, String name, String version) {
-		this.versions.put(createKey(group, name), version);
+		this.overrideVersions.put(createKey(group, name), ManagedVersions.intern(version));
 	}
 
 	void addExplicitManagedVersion(String group, String name, String version, List<Exclusion> exclusions) {
@@ -102,13 +143,23 @@ public class DependencyManagement {
 	}
 
 	String getManagedVersion(String group, String name) {
+		String key = createKey(group, name);
+		String version = this.overrideVersions.get(key);
+		if (version != null) {
+			return version;
+		}
 		resolveIfNecessary();
-		return this.versions.get(createKey(group, name));
+		return this.bomVersions.get(key);
 	}
 
+	/**
+	 * Returns a read-only view of the managed versions, keyed by {@code group:name}. The
+	 * view reflects any dependency management that is added after it was returned.
+	 * @return the managed versions
+	 */
 	Map<String, String> getManagedVersions() {
 		resolveIfNecessary();
-		return new HashMap<>(this.versions);
+		return this.managedVersions;
 	}
 
 	/**
@@ -125,8 +176,44 @@ public class DependencyManagement {
 		return managedDependencies;
 	}
 
+	/**
+	 * Creates an immutable snapshot of this dependency management, resolving it if
+	 * necessary.
+	 * @return the snapshot
+	 */
+	public DependencyManagementSnapshot snapshot() {
+		List<Coordinates> importedBoms = new ArrayList<>();
+		for (PomReference importedBom : this.importedBoms) {
+			importedBoms.add(importedBom.getCoordinates());
+		}
+		return new DependencyManagementSnapshot(importedBoms, getBomOverrides(), getManagedDependencies());
+	}
+
+	private List<Dependency> getBomOverrides() {
+		Map<String, Dependency> overrides = new LinkedHashMap<>();
+		for (Pom bom : getResolvedBoms()) {
+			List<Dependency> overriddenManagedDependencies = bom.getOverriddenManagedDependencies();
+			for (Dependency dependency : bom.getManagedDependencies()) {
+				String id = createId(dependency);
+				if (overriddenManagedDependencies.contains(dependency)) {
+					overrides.put(id, dependency);
+				}
+				else {
+					overrides.remove(id);
+				}
+			}
+		}
+		return new ArrayList<>(overrides.values());
+	}
+
+	private String createId(Dependency dependency) {
+		Coordinates coordinates = dependency.getCoordinates();
+		return String.format("%s:%s:%s:%s", coordinates.getGroupAndArtifactId(), dependency.getScope(),
+				dependency.getType(), dependency.getClassifier());
+	}
+
 	private String createKey(String group, String name) {
-		return group + ":" + name;
+		return ManagedVersions.intern(group + ":" + name);
 	}
 
 	Exclusions getExclusions() {
@@ -134,16 +221,36 @@ public class DependencyManagement {
 		return this.allExclusions;
 	}
 
-	private void resolveIfNecessary() {
-		if (this.importedBoms.isEmpty() || this.resolved) {
+	/**
+	 * Resolves any imported boms that have not yet been resolved. Resolution is
+	 * single-flight: when several threads need the boms at the same time, one resolves
+	 * them while the others wait and then use the result.
+	 */
+	void resolveIfNecessary() {
+		if (this.resolvedImports == this.importedBoms.size()) {
 			return;
 		}
-		try {
-			this.resolved = true;
-			resolve();
-		}
-		catch (Exception ex) {
-			throw new GradleException("Failed to resolve imported Maven boms: " + getRootCause(ex).getMessage(), ex);
+		synchronized (this.resolutionMonitor) {
+			int resolvedImports = this.resolvedImports;
+			int importedBoms = this.importedBoms.size();
+			if (this.resolving || resolvedImports == importedBoms) {
+				return;
+			}
+			List<PomReference> unresolvedBoms = new ArrayList<>(
+					this.importedBoms.subList(resolvedImports, importedBoms));
+			this.resolving = true;
+			try {
+				resolve(unresolvedBoms);
+			}
+			catch (Exception ex) {
+				throw new GradleException("Failed to resolve imported Maven boms: " + getRootCause(ex).getMessage(),
+						ex);
+			}
+			finally {
+				this.resolving = false;
+				// Only published once resolution is complete so no thread sees a partial result
+				this.resolvedImports = importedBoms;
+			}
 		}
 	}
 
@@ -155,7 +262,7 @@ public class DependencyManagement {
 		return candidate;
 	}
 
-	private void resolve() {
+	private void resolve(List<PomReference> boms) {
 		String projectName = this.project.getName();
 		if (this.targetConfiguration != null) {
 			logger.info("Resolving dependency management for configuration '{}' of project '{}'",
@@ -164,34 +271,92 @@ public class DependencyManagement {
 		else {
 			logger.info("Resolving global dependency management for project '{}'", projectName);
 		}
-		Map<String, String> existingVersions = new LinkedHashMap<>(this.versions);
-		logger.debug("Preserving existing versions: {}", existingVersions);
-		List<Pom> resolvedBoms = this.pomResolver.resolvePoms(this.importedBoms,
-				new ProjectPropertySource(this.project));
+		List<Pom> resolvedBoms = this.pomResolver.resolvePoms(boms, new ProjectPropertySource(this.project));
+		this.resolvedBoms.addAll(resolvedBoms);
 		for (Pom resolvedBom : resolvedBoms) {
+			addBomLayer(bomLayers.computeIfAbsent(resolvedBom, DependencyManagement::createBomLayer));
 			for (Dependency dependency : resolvedBom.getManagedDependencies()) {
-				resolve(resolvedBom, dependency);
+				if (isManaged(dependency)) {
+					this.allExclusions.add(createKey(dependency), dependency.getExclusions());
+				}
 			}
-			this.bomProperties.putAll(resolvedBom.getProperties());
+			addBomProperties(resolvedBom.getProperties());
+		}
+	}
+
+	private void addBomLayer(ManagedVersions layer) {
+		if (this.bomVersions.size() == 0) {
+			this.bomVersions = layer;
+		}
+		else {
+			Map<String, String> versions = new HashMap<>();
+			this.bomVersions.forEach(versions::put);
+			layer.forEach(versions::put);
+			this.bomVersions = ManagedVersions.of(versions);
+		}
+	}
+
+	private void addBomProperties(Map<String, String> properties) {
+		if (this.bomProperties.isEmpty()) {
+			this.bomProperties = Collections.unmodifiableMap(properties);
+		}
+		else {
+			Map<String, String> bomProperties = new HashMap<>(this.bomProperties);
+			bomProperties.putAll(properties);
+			this.bomProperties = Collections.unmodifiableMap(bomProperties);
 		}
-		this.versions.putAll(existingVersions);
 	}
 
-	private void resolve(Pom resolvedBom, Dependency dependency) {
-		if (isEmpty(dependency.getClassifier())) {
-			Coordinates coordinates = dependency.getCoordinates();
-			if (isEmpty(coordinates.getVersion())) {
+	private static ManagedVersions createBomLayer(Pom bom) {
+		Map<String, String> versions = new HashMap<>();
+		for (Dependency dependency : bom.getManagedDependencies()) {
+			if (isManaged(dependency)) {
+				versions.put(createKey(dependency), dependency.getCoordinates().getVersion());
+			}
+			else if (isEmpty(dependency.getClassifier())) {
 				logger.warn("Dependency management for {} in bom {} has no version and will be ignored.",
-						coordinates.getGroupAndArtifactId(), resolvedBom.getCoordinates());
-				return;
+						dependency.getCoordinates().getGroupAndArtifactId(), bom.getCoordinates());
 			}
-			this.versions.put(coordinates.getGroupAndArtifactId(), coordinates.getVersion());
-			this.allExclusions.add(coordinates.getGroupAndArtifactId(), dependency.getExclusions());
 		}
+		return ManagedVersions.of(versions);
 	}
 
-	private boolean isEmpty(String string) {
+	private static boolean isManaged(Dependency dependency) {
+		return isEmpty(dependency.getClassifier()) && !isEmpty(dependency.getCoordinates().getVersion());
+	}
+
+	private static String createKey(Dependency dependency) {
+		Coordinates coordinates = dependency.getCoordinates();
+		return ManagedVersions.intern(coordinates.getGroupId() + ":" + coordinates.getArtifactId());
+	}
+
+	private static boolean isEmpty(String string) {
 		return string == null || string.trim().length() == 0;
 	}
 
+	/**
+	 * A read-only view of the bom layer that resolves any unresolved imported boms
+	 * before it is read.
+	 */
+	private final class BomVersionsView extends AbstractMap<String, String> {
+
+		@Override
+		public String get(Object key) {
+			resolveIfNecessary();
+			return (key instanceof String) ? DependencyManagement.this.bomVersions.get((String) key) : null;
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return get(key) != null;
+		}
+
+		@Override
+		public Set<Entry<String, String>> entrySet() {
+			resolveIfNecessary();
+			return DependencyManagement.this.bomVersions.asMap().entrySet();
+		}
+
+	}
+
 }
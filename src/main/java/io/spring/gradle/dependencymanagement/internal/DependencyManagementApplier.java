@@ -16,16 +16,29 @@
 
 package io.spring.gradle.dependencymanagement.internal;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+
 import io.spring.gradle.dependencymanagement.internal.pom.PomResolver;
 import org.gradle.api.Action;
 import org.gradle.api.Project;
 import org.gradle.api.artifacts.Configuration;
-import org.gradle.api.artifacts.DependencySet;
+import org.gradle.api.artifacts.DependencyConstraint;
+import org.gradle.api.artifacts.ResolvableDependencies;
+import org.gradle.api.provider.Provider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * An {@link Action} that applies dependency management to a {@link Project}.
+ * An {@link Action} that applies dependency management to a {@link Project}. Managed
+ * versions are applied to each {@link Configuration} as it is created so that they are
+ * carried over to any copy of it. The expensive work of resolving imported boms and Maven
+ * exclusions is deferred until the configuration, or a copy of it, is resolved and is
+ * performed for the configuration that is being resolved. A configuration that cannot be
+ * resolved is left alone as its dependencies are managed when a configuration that
+ * extends from it is resolved.
  *
  * @author Andy Wilkinson
  */
@@ -43,6 +56,14 @@ public class DependencyManagementApplier implements Action<Configuration> {
 
 	private final DependencyManagementSettings dependencyManagementSettings;
 
+	private final ManagedVersionConstraintsApplier managedVersionConstraintsApplier;
+
+	private final Provider<LocalProjects> localProjects;
+
+	private final Provider<DependencyManagementMetrics> metrics;
+
+	private final DependencyManagementProfiler profiler;
+
 	/**
 	 * Creates a new {@code DependencyManagementApplier} that will apply dependency
 	 * management to the given {@code project}.
@@ -55,34 +76,110 @@ public class DependencyManagementApplier implements Action<Configuration> {
 	 * is applied
 	 * @param pomResolver used to perform any necessary pom resolution while applying
 	 * dependency management
+	 * @param profiler the profiler that records the time spent applying dependency
+	 * management to each configuration
 	 */
 	public DependencyManagementApplier(Project project, DependencyManagementContainer dependencyManagementContainer,
 			DependencyManagementConfigurationContainer configurationContainer,
-			DependencyManagementSettings dependencyManagementSettings, PomResolver pomResolver) {
+			DependencyManagementSettings dependencyManagementSettings, PomResolver pomResolver,
+			DependencyManagementProfiler profiler) {
 		this.project = project;
-		this.exclusionResolver = new ExclusionResolver(pomResolver);
+		this.metrics = DependencyManagementMetrics.register(project);
+		this.exclusionResolver = new ExclusionResolver(pomResolver, PomExclusionsCache.register(project.getGradle()),
+				this.metrics);
 		this.dependencyManagementContainer = dependencyManagementContainer;
 		this.configurationContainer = configurationContainer;
 		this.dependencyManagementSettings = dependencyManagementSettings;
+		this.localProjects = LocalProjects.register(project.getGradle());
+		this.localProjects.get().add(project);
+		this.managedVersionConstraintsApplier = new ManagedVersionConstraintsApplier(project,
+				dependencyManagementContainer, dependencyManagementSettings, this.localProjects);
+		this.profiler = profiler;
 	}
 
 	@Override
 	public void execute(Configuration configuration) {
+		if (!configuration.isCanBeResolved()) {
+			logger.debug("Configuration '{}' in project '{}' cannot be resolved. Dependency management will be "
+					+ "applied to the configurations that extend from it", configuration.getName(),
+					this.project.getName());
+			return;
+		}
 		logger.info("Applying dependency management to configuration '{}' in project '{}'", configuration.getName(),
 				this.project.getName());
-		configuration.getIncoming()
-			.beforeResolve((resolvableDependencies) -> this.dependencyManagementContainer
-				.getManagedVersionsForConfiguration(configuration));
-		VersionConfiguringAction versionConfiguringAction = new VersionConfiguringAction(this.project,
-				this.dependencyManagementContainer, configuration);
-		configuration.withDependencies(configureMavenExclusions(configuration, versionConfiguringAction));
+		VersionConfiguringAction versionConfiguringAction = new VersionConfiguringAction(this.localProjects,
+				this.dependencyManagementContainer, configuration, this.metrics, this.project, this.profiler,
+				this.managedVersionConstraintsApplier);
 		versionConfiguringAction.applyTo(configuration);
+		configuration.getDependencyConstraints()
+			.addAllLater(this.project.provider(() -> createManagedVersionConstraints(configuration)));
+		configuration.getIncoming().beforeResolve(new BeforeResolveAction(configuration, versionConfiguringAction));
 	}
 
-	private Action<DependencySet> configureMavenExclusions(Configuration configuration,
+	private ExclusionConfiguringAction configureMavenExclusions(Configuration configuration,
 			VersionConfiguringAction versionConfiguringAction) {
 		return new ExclusionConfiguringAction(this.dependencyManagementSettings, this.dependencyManagementContainer,
-				this.configurationContainer, configuration, this.exclusionResolver, versionConfiguringAction::applyTo);
+				this.configurationContainer, configuration, this.exclusionResolver, versionConfiguringAction::applyTo,
+				this.metrics, DependencyManagementMetrics.path(this.project, configuration), this.profiler);
+	}
+
+	private List<DependencyConstraint> createManagedVersionConstraints(Configuration configuration) {
+		if (!this.managedVersionConstraintsApplier.isApplicable(configuration)) {
+			return Collections.emptyList();
+		}
+		resolveImportedBoms(configuration);
+		return this.managedVersionConstraintsApplier.createConstraints(configuration);
+	}
+
+	private void resolveImportedBoms(Configuration configuration) {
+		long start = System.nanoTime();
+		this.dependencyManagementContainer.resolveImportedBoms(configuration);
+		this.profiler.recordBomResolution(configuration, System.nanoTime() - start);
+	}
+
+	/**
+	 * An {@link Action} that is called before a configuration, or a copy of it, is
+	 * resolved. The action that applies Maven exclusions is only created when it is first
+	 * needed.
+	 */
+	private final class BeforeResolveAction implements Action<ResolvableDependencies> {
+
+		private final Configuration configuration;
+
+		private final VersionConfiguringAction versionConfiguringAction;
+
+		private final Set<ResolvableDependencies> resolved = Collections
+			.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+		private volatile ExclusionConfiguringAction exclusionConfiguringAction;
+
+		private BeforeResolveAction(Configuration configuration, VersionConfiguringAction versionConfiguringAction) {
+			this.configuration = configuration;
+			this.versionConfiguringAction = versionConfiguringAction;
+		}
+
+		@Override
+		public void execute(ResolvableDependencies resolvableDependencies) {
+			if (this.resolved.add(resolvableDependencies)) {
+				resolveImportedBoms(this.configuration);
+				getExclusionConfiguringAction().execute(resolvableDependencies);
+			}
+		}
+
+		private ExclusionConfiguringAction getExclusionConfiguringAction() {
+			ExclusionConfiguringAction action = this.exclusionConfiguringAction;
+			if (action == null) {
+				synchronized (this) {
+					action = this.exclusionConfiguringAction;
+					if (action == null) {
+						action = configureMavenExclusions(this.configuration, this.versionConfiguringAction);
+						this.exclusionConfiguringAction = action;
+					}
+				}
+			}
+			return action;
+		}
+
 	}
 
 }
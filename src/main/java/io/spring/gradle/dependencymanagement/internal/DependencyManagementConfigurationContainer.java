@@ -24,6 +24,7 @@ import org.gradle.api.Project;
 import org.gradle.api.artifacts.Configuration;
 import org.gradle.api.artifacts.ConfigurationContainer;
 import org.gradle.api.artifacts.Dependency;
+import org.gradle.api.provider.Provider;
 
 /**
  * A container for {@link Configuration Configurations} created by the dependency
@@ -37,6 +38,10 @@ public class DependencyManagementConfigurationContainer {
 
 	private final ConfigurationContainer delegate;
 
+	private final Provider<DependencyManagementMetrics> metrics;
+
+	private final String projectPath;
+
 	/**
 	 * Creates a new {@code DependencyManagementConfigurationContainer} that will manage
 	 * {@link Configuration Configurations} for the given {@code project}.
@@ -44,6 +49,8 @@ public class DependencyManagementConfigurationContainer {
 	 */
 	public DependencyManagementConfigurationContainer(Project project) {
 		this.delegate = project.getConfigurations();
+		this.metrics = DependencyManagementMetrics.register(project);
+		this.projectPath = project.getPath();
 	}
 
 	/**
@@ -64,6 +71,7 @@ public class DependencyManagementConfigurationContainer {
 	 */
 	Configuration newConfiguration(ConfigurationConfigurer configurer, Dependency... dependencies) {
 		Configuration configuration = this.delegate.detachedConfiguration(dependencies);
+		this.metrics.get().detachedConfigurationCreated(this.projectPath);
 		if (configurer != null) {
 			configurer.configure(configuration);
 		}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2022 the original author or authors.
+ * Copyright 2014-2024 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,15 +19,21 @@ package io.spring.gradle.dependencymanagement.internal;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.LinkedHashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
 
 import io.spring.gradle.dependencymanagement.internal.pom.Coordinates;
 import io.spring.gradle.dependencymanagement.internal.pom.PomResolver;
 import io.spring.gradle.dependencymanagement.internal.properties.PropertySource;
 import org.gradle.api.Project;
 import org.gradle.api.artifacts.Configuration;
+import org.gradle.api.artifacts.Dependency;
+import org.gradle.api.artifacts.ProjectDependency;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -47,7 +53,9 @@ public class DependencyManagementContainer {
 
 	private final Project project;
 
-	private final Map<Configuration, DependencyManagement> configurationDependencyManagement = new LinkedHashMap<>();
+	private final Map<Configuration, DependencyManagement> configurationDependencyManagement;
+
+	private final AtomicInteger modificationCount = new AtomicInteger();
 
 	/**
 	 * Creates a new {@code DependencyManagementContainer} that will hold dependency
@@ -60,6 +68,7 @@ public class DependencyManagementContainer {
 		this.project = project;
 		this.pomResolver = pomResolver;
 		this.globalDependencyManagement = new DependencyManagement(this.project, this.pomResolver);
+		this.configurationDependencyManagement = new ConcurrentHashMap<>();
 	}
 
 	/**
@@ -71,6 +80,7 @@ public class DependencyManagementContainer {
 	}
 
 	void addImplicitManagedVersion(Configuration configuration, String group, String name, String version) {
+		this.modificationCount.incrementAndGet();
 		dependencyManagementForConfiguration(configuration).addImplicitManagedVersion(group, name, version);
 	}
 
@@ -87,6 +97,7 @@ public class DependencyManagementContainer {
 	 */
 	public void addManagedVersion(Configuration configuration, String group, String name, String version,
 			List<Exclusion> exclusions) {
+		this.modificationCount.incrementAndGet();
 		dependencyManagementForConfiguration(configuration).addExplicitManagedVersion(group, name, version, exclusions);
 	}
 
@@ -99,31 +110,72 @@ public class DependencyManagementContainer {
 	 * @param properties the properties to use when resolving the bom's contents
 	 */
 	public void importBom(Configuration configuration, Coordinates coordinates, PropertySource properties) {
+		this.modificationCount.incrementAndGet();
 		dependencyManagementForConfiguration(configuration).importBom(coordinates, properties);
 	}
 
-	String getManagedVersion(Configuration configuration, String group, String name) {
-		String version = (configuration != null) ? findManagedVersion(configuration, group, name) : null;
-		if (version == null) {
-			version = this.globalDependencyManagement.getManagedVersion(group, name);
-			if (version != null) {
-				logger.debug("Found managed version '{}' for dependency '{}:{}' in global dependency management",
-						version, group, name);
-			}
-		}
-		return version;
+	/**
+	 * Returns an index of the managed versions for the given {@code configuration} and
+	 * its hierarchy, including those from global dependency management.
+	 * @param configuration the configuration
+	 * @return the index
+	 * @see #isCurrent(ManagedVersionIndex)
+	 */
+	ManagedVersionIndex getManagedVersionIndex(Configuration configuration) {
+		int modificationCount = this.modificationCount.get();
+		ManagedVersionIndex index = ManagedVersionIndex.of(getManagedVersionsForConfiguration(configuration, true),
+				modificationCount);
+		logger.debug("Indexed managed versions for configuration '{}'", configuration.getName());
+		return index;
 	}
 
-	private String findManagedVersion(Configuration source, String group, String name) {
-		for (Configuration configuration : source.getHierarchy()) {
-			String managedVersion = dependencyManagementForConfiguration(configuration).getManagedVersion(group, name);
-			if (managedVersion != null) {
-				logger.debug("Found managed version '{}' for dependency '{}:{}' in dependency management for "
-						+ "configuration '{}'", managedVersion, group, name, configuration.getName());
-				return managedVersion;
+	/**
+	 * Returns an index of the managed versions for the given {@code configuration} and
+	 * its hierarchy, including those from global dependency management, that also
+	 * identifies the configuration's direct dependencies and the local projects, both
+	 * those in the given {@code localProjects} and those on which the configuration
+	 * depends directly. Only the managed versions that match the given
+	 * {@code managedVersionFilter} are included in the index.
+	 * @param configuration the configuration
+	 * @param localProjects the local projects
+	 * @param managedVersionFilter the filter for the managed versions
+	 * @return the index
+	 * @see #isCurrent(ManagedVersionIndex)
+	 */
+	ManagedVersionIndex getManagedVersionIndex(Configuration configuration, LocalProjects localProjects,
+			Predicate<String> managedVersionFilter) {
+		int modificationCount = this.modificationCount.get();
+		int localProjectsModificationCount = localProjects.getModificationCount();
+		Set<String> directDependencies = new HashSet<>();
+		Set<String> localProjectCoordinates = new HashSet<>(localProjects.getCoordinates());
+		for (Dependency dependency : configuration.getAllDependencies()) {
+			String id = dependency.getGroup() + ":" + dependency.getName();
+			directDependencies.add(id);
+			if (dependency instanceof ProjectDependency) {
+				localProjectCoordinates.add(id);
 			}
 		}
-		return null;
+		Map<String, String> managedVersions = new HashMap<>();
+		getManagedVersionsForConfiguration(configuration, true).forEach((id, version) -> {
+			if (managedVersionFilter.test(version)) {
+				managedVersions.put(id, version);
+			}
+		});
+		ManagedVersionIndex index = ManagedVersionIndex.of(managedVersions, directDependencies,
+				localProjectCoordinates, modificationCount, localProjectsModificationCount);
+		logger.debug("Indexed managed versions, direct dependencies, and local projects for configuration '{}'",
+				configuration.getName());
+		return index;
+	}
+
+	/**
+	 * Returns whether the given {@code index} is current, i.e. whether no dependency
+	 * management has been added since it was created.
+	 * @param index the index
+	 * @return {@code true} if the index is current, otherwise {@code false}
+	 */
+	boolean isCurrent(ManagedVersionIndex index) {
+		return index.getModificationCount() == this.modificationCount.get();
 	}
 
 	/**
@@ -161,7 +213,9 @@ public class DependencyManagementContainer {
 
 	/**
 	 * Returns the managed versions for the given {@code configuration} and its hierarchy.
-	 * The returned map contains keys of the form {@code groupId:artifactId}.
+	 * The returned map contains keys of the form {@code groupId:artifactId}. It is a
+	 * read-only view that reads through to the underlying dependency management and
+	 * should be copied before it is exposed to users.
 	 * @param configuration the configuration, or {@code null} for managed versions in
 	 * global dependency management
 	 * @return the managed versions for the configuration
@@ -174,7 +228,9 @@ public class DependencyManagementContainer {
 	 * Returns the managed versions for the given {@code configuration}. The returned map
 	 * contains keys of the form {@code groupId:artifactId}. If {@code inherited} is true,
 	 * managed versions for the entire {@link Configuration#getHierarchy() configuration
-	 * hierarchy} are returned.
+	 * hierarchy} are returned. The returned map is a read-only view that reads through
+	 * to the underlying dependency management rather than a copy of it and should be
+	 * copied before it is exposed to users.
 	 * @param configuration the configuration, or {@code null} for managed versions in
 	 * global dependency management
 	 * @param inherited true if managed versions inherited from the configuration
@@ -182,16 +238,30 @@ public class DependencyManagementContainer {
 	 * @return the managed versions for the configuration
 	 */
 	public Map<String, String> getManagedVersionsForConfiguration(Configuration configuration, boolean inherited) {
-		if (inherited) {
-			Map<String, String> managedVersions = dependencyManagementForConfiguration(null).getManagedVersions();
-			if (configuration != null) {
-				for (Configuration inHierarchy : getReversedHierarchy(configuration)) {
-					managedVersions.putAll(dependencyManagementForConfiguration(inHierarchy).getManagedVersions());
-				}
+		if (!inherited) {
+			return dependencyManagementForConfiguration(configuration).getManagedVersions();
+		}
+		List<Map<String, String>> layers = new ArrayList<>();
+		if (configuration != null) {
+			for (Configuration inHierarchy : configuration.getHierarchy()) {
+				layers.add(dependencyManagementForConfiguration(inHierarchy).getManagedVersions());
 			}
-			return managedVersions;
 		}
-		return dependencyManagementForConfiguration(configuration).getManagedVersions();
+		layers.add(this.globalDependencyManagement.getManagedVersions());
+		return new LayeredMap(layers);
+	}
+
+	/**
+	 * Resolves any imported boms in the dependency management for the given
+	 * {@code configuration}, its hierarchy, and global dependency management that have
+	 * not yet been resolved.
+	 * @param configuration the configuration
+	 */
+	void resolveImportedBoms(Configuration configuration) {
+		for (Configuration inHierarchy : configuration.getHierarchy()) {
+			dependencyManagementForConfiguration(inHierarchy).resolveIfNecessary();
+		}
+		this.globalDependencyManagement.resolveIfNecessary();
 	}
 
 	private List<Configuration> getReversedHierarchy(Configuration configuration) {
@@ -204,12 +274,8 @@ public class DependencyManagementContainer {
 		if (configuration == null) {
 			return this.globalDependencyManagement;
 		}
-		DependencyManagement dependencyManagement = this.configurationDependencyManagement.get(configuration);
-		if (dependencyManagement == null) {
-			dependencyManagement = new DependencyManagement(this.project, configuration, this.pomResolver);
-			this.configurationDependencyManagement.put(configuration, dependencyManagement);
-		}
-		return dependencyManagement;
+		return this.configurationDependencyManagement.computeIfAbsent(configuration,
+				(key) -> new DependencyManagement(this.project, key, this.pomResolver));
 	}
 
 	/**
@@ -0,0 +1,315 @@
+/*
+ * Copyright 2014-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import io.spring.gradle.dependencymanagement.internal.DependencyManagementProfiler.ConfigurationProfile;
+import org.gradle.api.Project;
+import org.gradle.api.artifacts.Configuration;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A build-scoped collector of timings and counters that describe the cost of dependency
+ * management. Collection is opt-in and is enabled by setting the
+ * {@value #OUTPUT_FILE_PROPERTY} Gradle property to the path, relative to the root
+ * project's directory, of a file. The metrics are written to that file as JSON when the
+ * build completes.
+ *
+ * @author Andy Wilkinson
+ */
+public abstract class DependencyManagementMetrics
+		implements BuildService<DependencyManagementMetrics.Parameters>, AutoCloseable {
+
+	/**
+	 * The name of the Gradle property that enables the collection of metrics.
+	 */
+	public static final String OUTPUT_FILE_PROPERTY = "io.spring.dependency-management.metrics";
+
+	private static final Logger logger = LoggerFactory.getLogger(DependencyManagementMetrics.class);
+
+	private final Map<String, Timing> effectiveModels = new ConcurrentHashMap<>();
+
+	private final Map<String, AtomicLong> detachedConfigurations = new ConcurrentHashMap<>();
+
+	private final Map<String, Timing> exclusionResolution = new ConcurrentHashMap<>();
+
+	private final Map<String, CacheStatistics> caches = new ConcurrentHashMap<>();
+
+	private final Map<String, AtomicLong> managedVersions = new ConcurrentHashMap<>();
+
+	private final Map<String, ConfigurationProfile> profiles = new ConcurrentHashMap<>();
+
+	private volatile Boolean enabled;
+
+	/**
+	 * Registers the metrics with the gradle of the given {@code project} if they have not
+	 * already been registered.
+	 * @param project the project
+	 * @return a provider of the metrics
+	 */
+	public static Provider<DependencyManagementMetrics> register(Project project) {
+		String name = DependencyManagementMetrics.class.getName() + "_"
+				+ System.identityHashCode(DependencyManagementMetrics.class.getClassLoader());
+		File rootDir = project.getRootDir();
+		Provider<File> outputFile = project.getProviders()
+			.gradleProperty(OUTPUT_FILE_PROPERTY)
+			.map((path) -> rootDir.toPath().resolve(path).toFile());
+		return project.getGradle()
+			.getSharedServices()
+			.registerIfAbsent(name, DependencyManagementMetrics.class,
+					(spec) -> spec.getParameters().getOutputFile().fileProvider(outputFile));
+	}
+
+	/**
+	 * Returns the path of the given {@code configuration} of the given {@code project}
+	 * for use as a key in the metrics.
+	 * @param project the project
+	 * @param configuration the configuration
+	 * @return the path of the configuration
+	 */
+	static String path(Project project, Configuration configuration) {
+		return path(project.getPath(), configuration.getName());
+	}
+
+	private static String path(String projectPath, String configurationName) {
+		if (projectPath.equals(":")) {
+			return ":" + configurationName;
+		}
+		return projectPath + ":" + configurationName;
+	}
+
+	/**
+	 * Records that the effective model of the given {@code pom} was built in the given
+	 * number of {@code nanos}.
+	 * @param pom the name of the pom
+	 * @param nanos the time taken to build the model
+	 */
+	public void effectiveModelBuilt(String pom, long nanos) {
+		if (isEnabled()) {
+			this.effectiveModels.computeIfAbsent(pom, (key) -> new Timing()).record(nanos);
+		}
+	}
+
+	/**
+	 * Records a lookup in the cache with the given {@code name}.
+	 * @param name the name of the cache
+	 * @param hit whether the lookup was a hit
+	 */
+	public void cacheLookup(String name, boolean hit) {
+		if (isEnabled()) {
+			this.caches.computeIfAbsent(name, (key) -> new CacheStatistics()).record(hit);
+		}
+	}
+
+	void detachedConfigurationCreated(String projectPath) {
+		if (isEnabled()) {
+			this.detachedConfigurations.computeIfAbsent(projectPath, (key) -> new AtomicLong()).incrementAndGet();
+		}
+	}
+
+	void exclusionsResolved(String configurationPath, long nanos) {
+		if (isEnabled()) {
+			this.exclusionResolution.computeIfAbsent(configurationPath, (key) -> new Timing()).record(nanos);
+		}
+	}
+
+	void versionsManaged(String configurationPath, long count) {
+		if (isEnabled() && count > 0) {
+			this.managedVersions.computeIfAbsent(configurationPath, (key) -> new AtomicLong()).addAndGet(count);
+		}
+	}
+
+	/**
+	 * Records the given {@code profiles} of the configurations of the project with the
+	 * given {@code projectPath}.
+	 * @param projectPath the path of the project
+	 * @param profiles the profiles
+	 */
+	public void configurationsProfiled(String projectPath, List<ConfigurationProfile> profiles) {
+		if (isEnabled()) {
+			for (ConfigurationProfile profile : profiles) {
+				this.profiles.put(path(projectPath, profile.getConfigurationName()), profile);
+			}
+		}
+	}
+
+	boolean isEnabled() {
+		Boolean enabled = this.enabled;
+		if (enabled == null) {
+			enabled = getParameters().getOutputFile().isPresent();
+			this.enabled = enabled;
+		}
+		return enabled;
+	}
+
+	@Override
+	public void close() {
+		if (!isEnabled()) {
+			return;
+		}
+		File outputFile = getParameters().getOutputFile().get().getAsFile();
+		try {
+			Files.createDirectories(outputFile.getParentFile().toPath());
+			try (Writer writer = Files.newBufferedWriter(outputFile.toPath(), StandardCharsets.UTF_8)) {
+				writeJson(writer);
+			}
+			logger.info("Wrote dependency management metrics to {}", outputFile);
+		}
+		catch (IOException ex) {
+			logger.warn("Failed to write dependency management metrics to {}", outputFile, ex);
+		}
+	}
+
+	private void writeJson(Writer writer) throws IOException {
+		writer.write("{\n");
+		writeObject(writer, "effectiveModels", this.effectiveModels, Timing::toJson);
+		writer.write(",\n");
+		writeObject(writer, "detachedConfigurations", this.detachedConfigurations, AtomicLong::toString);
+		writer.write(",\n");
+		writeObject(writer, "exclusionResolution", this.exclusionResolution, Timing::toJson);
+		writer.write(",\n");
+		writeObject(writer, "caches", this.caches, CacheStatistics::toJson);
+		writer.write(",\n");
+		writeObject(writer, "managedVersions", this.managedVersions, AtomicLong::toString);
+		writer.write(",\n");
+		writeObject(writer, "profiles", this.profiles, DependencyManagementMetrics::toJson);
+		writer.write("\n}\n");
+	}
+
+	private <T> void writeObject(Writer writer, String name, Map<String, T> values, Function<T, String> json)
+			throws IOException {
+		writer.write("  " + quote(name) + ": {");
+		Iterator<Map.Entry<String, T>> entries = new TreeMap<>(values).entrySet().iterator();
+		while (entries.hasNext()) {
+			Map.Entry<String, T> entry = entries.next();
+			writer.write("\n    " + quote(entry.getKey()) + ": " + json.apply(entry.getValue()));
+			if (entries.hasNext()) {
+				writer.write(",");
+			}
+		}
+		if (!values.isEmpty()) {
+			writer.write("\n  ");
+		}
+		writer.write("}");
+	}
+
+	private static String toJson(ConfigurationProfile profile) {
+		return "{ \"totalMillis\": " + millis(profile.getTotalNanos()) + ", \"bomResolutionMillis\": "
+				+ millis(profile.getBomResolutionNanos()) + ", \"exclusionResolutionMillis\": "
+				+ millis(profile.getExclusionResolutionNanos()) + ", \"versionCallbackMillis\": "
+				+ millis(profile.getVersionCallbackNanos()) + ", \"versionCallbacks\": "
+				+ profile.getVersionCallbacks() + " }";
+	}
+
+	private static long millis(long nanos) {
+		return TimeUnit.NANOSECONDS.toMillis(nanos);
+	}
+
+	private static String quote(String value) {
+		StringBuilder quoted = new StringBuilder("\"");
+		for (char c : value.toCharArray()) {
+			if (c == '"' || c == '\\') {
+				quoted.append('\\').append(c);
+			}
+			else if (c < 0x20) {
+				quoted.append(String.format("\\u%04x", (int) c));
+			}
+			else {
+				quoted.append(c);
+			}
+		}
+		return quoted.append('"').toString();
+	}
+
+	/**
+	 * Parameters for the metrics.
+	 */
+	public interface Parameters extends BuildServiceParameters {
+
+		/**
+		 * Returns the file to which the metrics are written. Metrics are only collected
+		 * when the file is present.
+		 * @return the output file
+		 */
+		RegularFileProperty getOutputFile();
+
+	}
+
+	/**
+	 * The number of times that an operation was performed and the total time taken.
+	 */
+	private static final class Timing {
+
+		private final AtomicLong count = new AtomicLong();
+
+		private final AtomicLong nanos = new AtomicLong();
+
+		private void record(long nanos) {
+			this.count.incrementAndGet();
+			this.nanos.addAndGet(nanos);
+		}
+
+		private String toJson() {
+			return "{ \"count\": " + this.count.get() + ", \"totalMillis\": "
+					+ TimeUnit.NANOSECONDS.toMillis(this.nanos.get()) + " }";
+		}
+
+	}
+
+	/**
+	 * The hits and misses of a cache.
+	 */
+	private static final class CacheStatistics {
+
+		private final AtomicLong hits = new AtomicLong();
+
+		private final AtomicLong misses = new AtomicLong();
+
+		private void record(boolean hit) {
+			(hit ? this.hits : this.misses).incrementAndGet();
+		}
+
+		private String toJson() {
+			long hits = this.hits.get();
+			long lookups = hits + this.misses.get();
+			double hitRate = (lookups > 0) ? (double) hits / lookups : 0;
+			return "{ \"hits\": " + hits + ", \"misses\": " + (lookups - hits) + ", \"hitRate\": "
+					+ String.format(Locale.ROOT, "%.3f", hitRate) + " }";
+		}
+
+	}
+
+}
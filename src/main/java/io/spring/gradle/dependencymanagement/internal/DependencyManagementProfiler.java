@@ -0,0 +1,202 @@
+/*
+ * Copyright 2014-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.gradle.api.artifacts.Configuration;
+
+/**
+ * Profiles the time that dependency management spends on each of a project's
+ * configurations. Profiling is disabled by default and is enabled when the project's
+ * dependency management profile task is going to be executed.
+ *
+ * @author Andy Wilkinson
+ */
+public class DependencyManagementProfiler {
+
+	private final Map<String, Timings> timings = new ConcurrentHashMap<>();
+
+	private volatile boolean enabled;
+
+	/**
+	 * Sets whether profiling is enabled.
+	 * @param enabled {@code true} to enable profiling, otherwise {@code false}
+	 */
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	/**
+	 * Returns the profiles of the configurations for which time has been recorded,
+	 * ordered by the total time spent on each configuration, most expensive first.
+	 * @return the configuration profiles
+	 */
+	public List<ConfigurationProfile> getProfiles() {
+		List<ConfigurationProfile> profiles = new ArrayList<>();
+		this.timings.forEach((name, timings) -> profiles.add(timings.toProfile(name)));
+		profiles.sort(Comparator.comparingLong(ConfigurationProfile::getTotalNanos)
+			.reversed()
+			.thenComparing(ConfigurationProfile::getConfigurationName));
+		return profiles;
+	}
+
+	void recordBomResolution(Configuration configuration, long nanos) {
+		if (this.enabled) {
+			timingsFor(configuration).bomResolution.addAndGet(nanos);
+		}
+	}
+
+	void recordExclusionResolution(Configuration configuration, long nanos) {
+		if (this.enabled) {
+			timingsFor(configuration).exclusionResolution.addAndGet(nanos);
+		}
+	}
+
+	void recordVersionCallback(Configuration configuration, long nanos) {
+		if (this.enabled) {
+			Timings timings = timingsFor(configuration);
+			timings.versionCallbacks.addAndGet(nanos);
+			timings.versionCallbackCount.incrementAndGet();
+		}
+	}
+
+	boolean isEnabled() {
+		return this.enabled;
+	}
+
+	private Timings timingsFor(Configuration configuration) {
+		return this.timings.computeIfAbsent(configuration.getName(), (name) -> new Timings());
+	}
+
+	/**
+	 * The time, in nanoseconds, that has been spent on a configuration.
+	 */
+	private static final class Timings {
+
+		private final AtomicLong bomResolution = new AtomicLong();
+
+		private final AtomicLong exclusionResolution = new AtomicLong();
+
+		private final AtomicLong versionCallbacks = new AtomicLong();
+
+		private final AtomicLong versionCallbackCount = new AtomicLong();
+
+		private ConfigurationProfile toProfile(String configurationName) {
+			return new ConfigurationProfile(configurationName, this.bomResolution.get(),
+					this.exclusionResolution.get(), this.versionCallbacks.get(), this.versionCallbackCount.get());
+		}
+
+	}
+
+	/**
+	 * The time that dependency management spent on a configuration.
+	 */
+	public static final class ConfigurationProfile implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		private final String configurationName;
+
+		private final long bomResolutionNanos;
+
+		private final long exclusionResolutionNanos;
+
+		private final long versionCallbackNanos;
+
+		private final long versionCallbacks;
+
+		/**
+		 * Creates a new {@code ConfigurationProfile}.
+		 * @param configurationName the name of the configuration
+		 * @param bomResolutionNanos the bom resolution time in nanoseconds
+		 * @param exclusionResolutionNanos the exclusion resolution time in nanoseconds
+		 * @param versionCallbackNanos the version callback time in nanoseconds
+		 * @param versionCallbacks the number of version callbacks
+		 */
+		public ConfigurationProfile(String configurationName, long bomResolutionNanos, long exclusionResolutionNanos,
+				long versionCallbackNanos, long versionCallbacks) {
+			this.configurationName = configurationName;
+			this.bomResolutionNanos = bomResolutionNanos;
+			this.exclusionResolutionNanos = exclusionResolutionNanos;
+			this.versionCallbackNanos = versionCallbackNanos;
+			this.versionCallbacks = versionCallbacks;
+		}
+
+		/**
+		 * Returns the name of the configuration.
+		 * @return the configuration name
+		 */
+		public String getConfigurationName() {
+			return this.configurationName;
+		}
+
+		/**
+		 * Returns the time spent resolving the boms imported by the configuration's
+		 * dependency management. Boms that are shared with other configurations are only
+		 * resolved once so their cost is attributed to the first configuration that
+		 * needed them.
+		 * @return the bom resolution time in nanoseconds
+		 */
+		public long getBomResolutionNanos() {
+			return this.bomResolutionNanos;
+		}
+
+		/**
+		 * Returns the time spent resolving a copy of the configuration to apply Maven
+		 * exclusions.
+		 * @return the exclusion resolution time in nanoseconds
+		 */
+		public long getExclusionResolutionNanos() {
+			return this.exclusionResolutionNanos;
+		}
+
+		/**
+		 * Returns the time spent in callbacks that set the versions of the
+		 * configuration's dependencies.
+		 * @return the version callback time in nanoseconds
+		 */
+		public long getVersionCallbackNanos() {
+			return this.versionCallbackNanos;
+		}
+
+		/**
+		 * Returns the number of callbacks that set the versions of the configuration's
+		 * dependencies.
+		 * @return the number of version callbacks
+		 */
+		public long getVersionCallbacks() {
+			return this.versionCallbacks;
+		}
+
+		/**
+		 * Returns the total time that dependency management spent on the configuration.
+		 * @return the total time in nanoseconds
+		 */
+		public long getTotalNanos() {
+			return this.bomResolutionNanos + this.exclusionResolutionNanos + this.versionCallbackNanos;
+		}
+
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2022 the original author or authors.
+ * Copyright 2014-2024 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -25,8 +25,20 @@ public class DependencyManagementSettings {
 
 	private boolean applyMavenExclusions = true;
 
+	private boolean singlePassMavenExclusions = false;
+
 	private boolean overriddenByDependencies = true;
 
+	private boolean applyManagedVersionsAsConstraints = false;
+
+	private boolean cacheResolvedBoms = false;
+
+	private boolean resolveBomsInParallel = false;
+
+	private boolean cachePomExclusions = false;
+
+	private boolean lightweightBomResolution = false;
+
 	private final PomCustomizationSettings pomCustomizationSettings = new PomCustomizationSettings();
 
 	/**
@@ -49,6 +61,28 @@ public class DependencyManagementSettings {
 		this.applyMavenExclusions = applyMavenExclusions;
 	}
 
+	/**
+	 * Whether or not Maven-style exclusions should be applied in a single resolution
+	 * pass.
+	 * @return {@code true} if Maven-style exclusions should be applied in a single
+	 * resolution pass, otherwise {@code false}
+	 */
+	boolean isSinglePassMavenExclusions() {
+		return this.singlePassMavenExclusions;
+	}
+
+	/**
+	 * Set whether or not Maven-style exclusions should be applied in a single resolution
+	 * pass. When {@code true}, exclusions declared in the poms of dependencies are left to
+	 * Gradle for each configuration that has no managed exclusions. The default is
+	 * {@code false}.
+	 * @param singlePassMavenExclusions {@code true} if Maven-style exclusions should be
+	 * applied in a single resolution pass, otherwise {@code false}
+	 */
+	public void setSinglePassMavenExclusions(boolean singlePassMavenExclusions) {
+		this.singlePassMavenExclusions = singlePassMavenExclusions;
+	}
+
 	/**
 	 * Whether or not dependency management should be overridden by versions declared on a
 	 * project's dependencies.
@@ -70,6 +104,105 @@ public class DependencyManagementSettings {
 		this.overriddenByDependencies = overriddenByDependencies;
 	}
 
+	/**
+	 * Whether or not managed versions should be applied in bulk as dependency
+	 * constraints.
+	 * @return {@code true} if managed versions should be applied as constraints,
+	 * otherwise {@code false}
+	 */
+	boolean isApplyManagedVersionsAsConstraints() {
+		return this.applyManagedVersionsAsConstraints;
+	}
+
+	/**
+	 * Set whether or not managed versions should be applied in bulk as dependency
+	 * constraints rather than by a callback that is called for every dependency in the
+	 * graph. The default is {@code false}.
+	 * @param applyManagedVersionsAsConstraints {@code true} if managed versions should be
+	 * applied as constraints, otherwise {@code false}
+	 */
+	public void setApplyManagedVersionsAsConstraints(boolean applyManagedVersionsAsConstraints) {
+		this.applyManagedVersionsAsConstraints = applyManagedVersionsAsConstraints;
+	}
+
+	/**
+	 * Whether or not the results of resolving imported boms should be cached on disk so
+	 * that they can be reused by subsequent builds.
+	 * @return {@code true} if resolved boms should be cached, otherwise {@code false}
+	 */
+	public boolean isCacheResolvedBoms() {
+		return this.cacheResolvedBoms;
+	}
+
+	/**
+	 * Set whether or not the results of resolving imported boms should be cached on disk
+	 * so that they can be reused by subsequent builds. The default is {@code false}.
+	 * @param cacheResolvedBoms {@code true} if resolved boms should be cached, otherwise
+	 * {@code false}
+	 */
+	public void setCacheResolvedBoms(boolean cacheResolvedBoms) {
+		this.cacheResolvedBoms = cacheResolvedBoms;
+	}
+
+	/**
+	 * Whether or not the effective models of imported boms should be built in parallel.
+	 * @return {@code true} if the models should be built in parallel, otherwise
+	 * {@code false}
+	 */
+	public boolean isResolveBomsInParallel() {
+		return this.resolveBomsInParallel;
+	}
+
+	/**
+	 * Set whether or not the effective models of imported boms should be built in
+	 * parallel. The default is {@code false}.
+	 * @param resolveBomsInParallel {@code true} if the models should be built in
+	 * parallel, otherwise {@code false}
+	 */
+	public void setResolveBomsInParallel(boolean resolveBomsInParallel) {
+		this.resolveBomsInParallel = resolveBomsInParallel;
+	}
+
+	/**
+	 * Whether or not the exclusions declared in the poms of dependencies should be cached
+	 * on disk so that they can be reused by subsequent builds.
+	 * @return {@code true} if the exclusions should be cached, otherwise {@code false}
+	 */
+	public boolean isCachePomExclusions() {
+		return this.cachePomExclusions;
+	}
+
+	/**
+	 * Set whether or not the exclusions declared in the poms of dependencies should be
+	 * cached on disk so that they can be reused by subsequent builds. The default is
+	 * {@code false}.
+	 * @param cachePomExclusions {@code true} if the exclusions should be cached,
+	 * otherwise {@code false}
+	 */
+	public void setCachePomExclusions(boolean cachePomExclusions) {
+		this.cachePomExclusions = cachePomExclusions;
+	}
+
+	/**
+	 * Whether or not imported boms should be resolved by streaming their poms rather than
+	 * by using Maven's model builder, when possible.
+	 * @return {@code true} if lightweight bom resolution should be used, otherwise
+	 * {@code false}
+	 */
+	public boolean isLightweightBomResolution() {
+		return this.lightweightBomResolution;
+	}
+
+	/**
+	 * Set whether or not imported boms should be resolved by streaming their poms rather
+	 * than by using Maven's model builder, when possible. The default is {@code false}.
+	 * @param lightweightBomResolution {@code true} if lightweight bom resolution should be
+	 * used, otherwise {@code false}
+	 */
+	public void setLightweightBomResolution(boolean lightweightBomResolution) {
+		this.lightweightBomResolution = lightweightBomResolution;
+	}
+
 	/**
 	 * Returns the settings for pom customization.
 	 * @return the pom customizations settings
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2014-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal;
+
+import java.util.Collections;
+import java.util.List;
+
+import io.spring.gradle.dependencymanagement.internal.pom.Coordinates;
+import io.spring.gradle.dependencymanagement.internal.pom.Dependency;
+
+/**
+ * An immutable snapshot of the resolved state of a {@link DependencyManagement}. A
+ * snapshot holds no references to a {@code Project} or {@code Configuration}, allowing it
+ * to be stored in Gradle's configuration cache.
+ *
+ * @author Andy Wilkinson
+ */
+public final class DependencyManagementSnapshot {
+
+	private final List<Coordinates> importedBoms;
+
+	private final List<Dependency> bomOverrides;
+
+	private final List<Dependency> managedDependencies;
+
+	DependencyManagementSnapshot(List<Coordinates> importedBoms, List<Dependency> bomOverrides,
+			List<Dependency> managedDependencies) {
+		this.importedBoms = Collections.unmodifiableList(importedBoms);
+		this.bomOverrides = Collections.unmodifiableList(bomOverrides);
+		this.managedDependencies = Collections.unmodifiableList(managedDependencies);
+	}
+
+	/**
+	 * Returns the coordinates of the imported boms in the order in which they were
+	 * imported.
+	 * @return the imported boms
+	 */
+	public List<Coordinates> getImportedBoms() {
+		return this.importedBoms;
+	}
+
+	/**
+	 * Returns the dependencies managed by the imported boms whose versions were
+	 * overridden by properties and that are not managed with their default version by a
+	 * bom that was imported later.
+	 * @return the overridden managed dependencies
+	 */
+	public List<Dependency> getBomOverrides() {
+		return this.bomOverrides;
+	}
+
+	/**
+	 * Returns the explicitly managed dependencies.
+	 * @return the managed dependencies
+	 */
+	public List<Dependency> getManagedDependencies() {
+		return this.managedDependencies;
+	}
+
+}
@@ -16,10 +16,11 @@
 
 package io.spring.gradle.dependencymanagement.internal;
 
+import java.util.ArrayDeque;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.Map;
 import java.util.Set;
 
@@ -29,6 +30,7 @@ import org.gradle.api.artifacts.Configuration;
 import org.gradle.api.artifacts.Dependency;
 import org.gradle.api.artifacts.DependencyConstraintSet;
 import org.gradle.api.artifacts.DependencySet;
+import org.gradle.api.artifacts.ModuleDependency;
 import org.gradle.api.artifacts.ModuleVersionIdentifier;
 import org.gradle.api.artifacts.ResolvableDependencies;
 import org.gradle.api.artifacts.component.ComponentSelector;
@@ -38,6 +40,7 @@ import org.gradle.api.artifacts.result.ResolutionResult;
 import org.gradle.api.artifacts.result.ResolvedComponentResult;
 import org.gradle.api.artifacts.result.ResolvedDependencyResult;
 import org.gradle.api.artifacts.result.UnresolvedDependencyResult;
+import org.gradle.api.provider.Provider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -47,7 +50,7 @@ import org.slf4j.LoggerFactory;
  *
  * @author Andy Wilkinson
  */
-class ExclusionConfiguringAction implements Action<DependencySet> {
+class ExclusionConfiguringAction implements Action<ResolvableDependencies> {
 
 	private static final Logger logger = LoggerFactory.getLogger(ExclusionConfiguringAction.class);
 
@@ -63,36 +66,73 @@ class ExclusionConfiguringAction implements Action<DependencySet> {
 
 	private final ConfigurationConfigurer configurationConfigurer;
 
+	private final Provider<DependencyManagementMetrics> metrics;
+
+	private final String configurationPath;
+
+	private final DependencyManagementProfiler profiler;
+
 	ExclusionConfiguringAction(DependencyManagementSettings dependencyManagementSettings,
 			DependencyManagementContainer dependencyManagementContainer,
 			DependencyManagementConfigurationContainer configurationContainer, Configuration configuration,
-			ExclusionResolver exclusionResolver, ConfigurationConfigurer configurationConfigurer) {
+			ExclusionResolver exclusionResolver, ConfigurationConfigurer configurationConfigurer,
+			Provider<DependencyManagementMetrics> metrics, String configurationPath,
+			DependencyManagementProfiler profiler) {
 		this.dependencyManagementSettings = dependencyManagementSettings;
 		this.dependencyManagementContainer = dependencyManagementContainer;
 		this.configurationContainer = configurationContainer;
 		this.configuration = configuration;
 		this.exclusionResolver = exclusionResolver;
 		this.configurationConfigurer = configurationConfigurer;
+		this.metrics = metrics;
+		this.configurationPath = configurationPath;
+		this.profiler = profiler;
 	}
 
 	@Override
-	public void execute(DependencySet dependencySet) {
+	public void execute(ResolvableDependencies resolvableDependencies) {
 		if (this.configuration.isCanBeResolved() && this.configuration.isTransitive()
 				&& this.dependencyManagementSettings.isApplyMavenExclusions()) {
-			applyMavenExclusions(dependencySet);
+			if (!this.dependencyManagementSettings.isSinglePassMavenExclusions()) {
+				applyMavenExclusions(resolvableDependencies);
+			}
+			else if (!this.dependencyManagementContainer.getExclusions(this.configuration).isEmpty()) {
+				logger.info("Maven exclusions cannot be applied to {} in a single pass as it has managed exclusions",
+						this.configuration);
+				applyMavenExclusions(resolvableDependencies);
+			}
 		}
 	}
 
-	private void applyMavenExclusions(DependencySet dependencySet) {
-		Set<DependencyCandidate> excludedDependencies = findExcludedDependencies();
+	private void applyMavenExclusions(ResolvableDependencies resolvableDependencies) {
+		long start = System.nanoTime();
+		Set<DependencyCandidate> excludedDependencies = findExcludedDependencies(resolvableDependencies);
+		long duration = System.nanoTime() - start;
+		this.metrics.get().exclusionsResolved(this.configurationPath, duration);
+		this.profiler.recordExclusionResolution(this.configuration, duration);
 		logger.info("Excluding {}", excludedDependencies);
 		for (DependencyCandidate excludedDependency : excludedDependencies) {
-			this.configuration.exclude(excludedDependency.asMap());
+			exclude(resolvableDependencies, excludedDependency.asMap());
 		}
 	}
 
-	private Set<DependencyCandidate> findExcludedDependencies() {
-		ResolutionResult resolutionResult = copyConfiguration().getIncoming().getResolutionResult();
+	private void exclude(ResolvableDependencies resolvableDependencies, Map<String, String> exclusion) {
+		if (resolvableDependencies == this.configuration.getIncoming()) {
+			this.configuration.exclude(exclusion);
+		}
+		else {
+			// A copy of the configuration is being resolved and its dependencies are
+			// copies too
+			for (ModuleDependency dependency : resolvableDependencies.getDependencies()
+				.withType(ModuleDependency.class)) {
+				dependency.exclude(exclusion);
+			}
+		}
+	}
+
+	private Set<DependencyCandidate> findExcludedDependencies(ResolvableDependencies resolvableDependencies) {
+		ResolutionResult resolutionResult = copyConfiguration(resolvableDependencies).getIncoming()
+			.getResolutionResult();
 		ResolvedComponentResult root = resolutionResult.getRoot();
 		Set<DependencyCandidate> excludedDependencies = new HashSet<>();
 		resolutionResult.allDependencies((dependencyResult) -> {
@@ -116,19 +156,20 @@ class ExclusionConfiguringAction implements Action<DependencySet> {
 		return excludedDependencies;
 	}
 
-	private Configuration copyConfiguration() {
-		DependencySet allDependencies = this.configuration.getAllDependencies();
+	private Configuration copyConfiguration(ResolvableDependencies resolvableDependencies) {
+		DependencySet allDependencies = resolvableDependencies.getDependencies();
 		Configuration configurationCopy = this.configurationContainer.newConfiguration(this.configurationConfigurer,
 				allDependencies.toArray(new Dependency[allDependencies.size()]));
-		DependencyConstraintSet constraints = this.configuration.getAllDependencyConstraints();
+		DependencyConstraintSet constraints = resolvableDependencies.getDependencyConstraints();
 		configurationCopy.getDependencyConstraints().addAll(constraints);
 		return configurationCopy;
 	}
 
-	private Set<DependencyCandidate> determineIncludedComponents(ResolvedComponentResult root,
+	Set<DependencyCandidate> determineIncludedComponents(ResolvedComponentResult root,
 			Map<String, Exclusions> pomExclusionsById) {
-		LinkedList<Node> queue = new LinkedList<>();
-		queue.add(new Node(root, getId(root), new HashSet<>()));
+		Exclusions managedExclusions = this.dependencyManagementContainer.getExclusions(this.configuration);
+		Deque<Node> queue = new ArrayDeque<>();
+		queue.add(new Node(root, getId(root), ExclusionSet.EMPTY));
 		Set<ResolvedComponentResult> seen = new HashSet<>();
 		Set<DependencyCandidate> includedComponents = new HashSet<>();
 		while (!queue.isEmpty()) {
@@ -136,8 +177,8 @@ class ExclusionConfiguringAction implements Action<DependencySet> {
 			includedComponents.add(new DependencyCandidate(node.component.getModuleVersion()));
 			for (DependencyResult dependency : node.component.getDependencies()) {
 				if (dependency instanceof ResolvedDependencyResult) {
-					handleResolvedDependency((ResolvedDependencyResult) dependency, node, pomExclusionsById, queue,
-							seen);
+					handleResolvedDependency((ResolvedDependencyResult) dependency, node, managedExclusions,
+							pomExclusionsById, queue, seen);
 				}
 				else if (dependency instanceof UnresolvedDependencyResult) {
 					handleUnresolvedDependency((UnresolvedDependencyResult) dependency, node, includedComponents);
@@ -148,18 +189,23 @@ class ExclusionConfiguringAction implements Action<DependencySet> {
 	}
 
 	private void handleResolvedDependency(ResolvedDependencyResult dependency, Node node,
-			Map<String, Exclusions> pomExclusionsById, LinkedList<Node> queue, Set<ResolvedComponentResult> seen) {
+			Exclusions managedExclusions, Map<String, Exclusions> pomExclusionsById, Deque<Node> queue,
+			Set<ResolvedComponentResult> seen) {
 		ResolvedComponentResult child = dependency.getSelected();
-		String childId = getId(child);
-		if (!node.excluded(childId) && !dependency.isConstraint() && seen.add(child)) {
-			queue.add(new Node(child, childId, getChildExclusions(node, childId, pomExclusionsById)));
+		ModuleVersionIdentifier childModule = child.getModuleVersion();
+		if (!dependency.isConstraint() && !node.exclusions.excludes(childModule.getGroup(), childModule.getName())
+				&& seen.add(child)) {
+			String childId = getId(child);
+			queue.add(new Node(child, childId,
+					getChildExclusions(node, childId, managedExclusions, pomExclusionsById)));
 		}
 	}
 
 	private void handleUnresolvedDependency(UnresolvedDependencyResult dependency, Node node,
 			Set<DependencyCandidate> includedComponents) {
 		DependencyCandidate dependencyCandidate = toDependencyCandidate(dependency);
-		if (dependencyCandidate != null && (!node.excluded(dependencyCandidate.getGroupAndArtifactId()))) {
+		if (dependencyCandidate != null
+				&& !node.exclusions.excludes(dependencyCandidate.groupId, dependencyCandidate.artifactId)) {
 			includedComponents.add(dependencyCandidate);
 		}
 	}
@@ -173,23 +219,16 @@ class ExclusionConfiguringAction implements Action<DependencySet> {
 		return new DependencyCandidate(attemptedModuleSelector.getGroup(), attemptedModuleSelector.getModule());
 	}
 
-	private Set<Exclusion> getChildExclusions(Node parent, String childId, Map<String, Exclusions> pomExclusionsById) {
-		Set<Exclusion> childExclusions = new HashSet<>(parent.exclusions);
-		addAllIfPossible(childExclusions,
-				this.dependencyManagementContainer.getExclusions(this.configuration).exclusionsForDependency(childId));
+	private ExclusionSet getChildExclusions(Node parent, String childId, Exclusions managedExclusions,
+			Map<String, Exclusions> pomExclusionsById) {
+		ExclusionSet childExclusions = parent.exclusions.with(managedExclusions.exclusionsForDependency(childId));
 		Exclusions exclusionsInPom = pomExclusionsById.get(parent.id);
 		if (exclusionsInPom != null) {
-			addAllIfPossible(childExclusions, exclusionsInPom.exclusionsForDependency(childId));
+			childExclusions = childExclusions.with(exclusionsInPom.exclusionsForDependency(childId));
 		}
 		return childExclusions;
 	}
 
-	private void addAllIfPossible(Set<Exclusion> current, Set<Exclusion> addition) {
-		if (addition != null) {
-			current.addAll(addition);
-		}
-	}
-
 	private String getId(ResolvedComponentResult component) {
 		return component.getModuleVersion().getGroup() + ":" + component.getModuleVersion().getName();
 	}
@@ -200,32 +239,14 @@ class ExclusionConfiguringAction implements Action<DependencySet> {
 
 		private final String id;
 
-		private final Set<Exclusion> exclusions;
+		private final ExclusionSet exclusions;
 
-		private Node(ResolvedComponentResult component, String id, Set<Exclusion> exclusions) {
+		private Node(ResolvedComponentResult component, String id, ExclusionSet exclusions) {
 			this.component = component;
 			this.id = id;
 			this.exclusions = exclusions;
 		}
 
-		private boolean excluded(String id) {
-			if (this.exclusions == null || this.exclusions.isEmpty()) {
-				return false;
-			}
-			String[] components = id.split(":");
-			for (Exclusion exclusion : this.exclusions) {
-				if (matches(components[0], exclusion.getGroupId())
-						&& matches(components[1], exclusion.getArtifactId())) {
-					return true;
-				}
-			}
-			return false;
-		}
-
-		private boolean matches(String candidate, String exclusion) {
-			return exclusion.equals("*") || exclusion.equals(candidate);
-		}
-
 	}
 
 	private static final class DependencyCandidate {
@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2022 the original author or authors.
+ * Copyright 2014-2024 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -33,6 +33,7 @@ import io.spring.gradle.dependencymanagement.internal.pom.PomReference;
 import io.spring.gradle.dependencymanagement.internal.pom.PomResolver;
 import org.gradle.api.artifacts.component.ModuleComponentIdentifier;
 import org.gradle.api.artifacts.result.ResolvedComponentResult;
+import org.gradle.api.provider.Provider;
 
 /**
  * Resolves the {@link Exclusions exclusions} for a {@link ResolvedComponentResult
@@ -45,22 +46,31 @@ class ExclusionResolver {
 	private static final Set<String> IGNORED_SCOPES = Collections
 		.unmodifiableSet(new HashSet<>(Arrays.asList("provided", "test")));
 
-	private final Map<String, Exclusions> exclusionsCache = new HashMap<>();
+	private final Provider<PomExclusionsCache> exclusionsCache;
 
 	private final PomResolver pomResolver;
 
-	ExclusionResolver(PomResolver pomResolver) {
+	private final Provider<DependencyManagementMetrics> metrics;
+
+	ExclusionResolver(PomResolver pomResolver, Provider<PomExclusionsCache> exclusionsCache,
+			Provider<DependencyManagementMetrics> metrics) {
 		this.pomResolver = pomResolver;
+		this.exclusionsCache = exclusionsCache;
+		this.metrics = metrics;
 	}
 
 	Map<String, Exclusions> resolveExclusions(Collection<ResolvedComponentResult> resolvedComponents) {
+		PomExclusionsCache exclusionsCache = this.exclusionsCache.get();
+		DependencyManagementMetrics metrics = this.metrics.get();
 		List<PomReference> pomReferences = new ArrayList<>();
 		Map<String, Exclusions> exclusionsById = new HashMap<>();
 		for (ResolvedComponentResult resolvedComponent : resolvedComponents) {
 			if (resolvedComponent.getId() instanceof ModuleComponentIdentifier) {
 				ModuleComponentIdentifier identifier = (ModuleComponentIdentifier) resolvedComponent.getId();
 				String id = identifier.getGroup() + ":" + identifier.getModule();
-				Exclusions exclusions = this.exclusionsCache.get(id);
+				Exclusions exclusions = exclusionsCache.get(identifier.getGroup(), identifier.getModule(),
+						identifier.getVersion());
+				metrics.cacheLookup("pomExclusions", exclusions != null);
 				if (exclusions != null) {
 					exclusionsById.put(id, exclusions);
 				}
@@ -72,10 +82,11 @@ class ExclusionResolver {
 		}
 		List<Pom> poms = this.pomResolver.resolvePomsLeniently(pomReferences);
 		for (Pom pom : poms) {
-			String id = pom.getCoordinates().getGroupAndArtifactId();
+			Coordinates coordinates = pom.getCoordinates();
 			Exclusions exclusions = collectExclusions(pom);
-			this.exclusionsCache.put(id, exclusions);
-			exclusionsById.put(id, exclusions);
+			exclusionsCache.put(coordinates.getGroupId(), coordinates.getArtifactId(), coordinates.getVersion(),
+					exclusions);
+			exclusionsById.put(coordinates.getGroupAndArtifactId(), exclusions);
 		}
 		return exclusionsById;
 	}
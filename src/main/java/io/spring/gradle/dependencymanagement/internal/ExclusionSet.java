@@ -0,0 +1,103 @@
+/*
+ * Copyright 2014-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An immutable set of {@link Exclusion Exclusions} that is organized by group ID and then
+ * by artifact ID so that a module can be matched without creating or splitting its
+ * {@code group:name} identifier. A group ID or artifact ID of {@code *} matches any group
+ * or artifact respectively. Adding exclusions that are already matched returns the same
+ * set, allowing it to be shared rather than copied.
+ *
+ * @author Andy Wilkinson
+ */
+final class ExclusionSet {
+
+	static final ExclusionSet EMPTY = new ExclusionSet(Collections.emptyMap());
+
+	private static final String WILDCARD = "*";
+
+	private final Map<String, Set<String>> artifactIdsByGroupId;
+
+	private ExclusionSet(Map<String, Set<String>> artifactIdsByGroupId) {
+		this.artifactIdsByGroupId = artifactIdsByGroupId;
+	}
+
+	/**
+	 * Returns whether the module with the given {@code groupId} and {@code artifactId}
+	 * is excluded.
+	 * @param groupId the group ID of the module
+	 * @param artifactId the artifact ID of the module
+	 * @return {@code true} if the module is excluded, otherwise {@code false}
+	 */
+	boolean excludes(String groupId, String artifactId) {
+		if (this.artifactIdsByGroupId.isEmpty()) {
+			return false;
+		}
+		return matches(this.artifactIdsByGroupId.get(groupId), artifactId)
+				|| matches(this.artifactIdsByGroupId.get(WILDCARD), artifactId);
+	}
+
+	private boolean matches(Set<String> artifactIds, String artifactId) {
+		return artifactIds != null && (artifactIds.contains(artifactId) || artifactIds.contains(WILDCARD));
+	}
+
+	/**
+	 * Returns a set that contains this set's exclusions and the given
+	 * {@code exclusions}. If all of the given exclusions are already matched by this set,
+	 * this set is returned. Otherwise, a new set is returned that shares the unchanged
+	 * parts of this set.
+	 * @param exclusions the exclusions to add, may be {@code null}
+	 * @return the set containing the exclusions
+	 */
+	ExclusionSet with(Collection<Exclusion> exclusions) {
+		if (exclusions == null || matchesAll(exclusions)) {
+			return this;
+		}
+		Map<String, Set<String>> artifactIdsByGroupId = new HashMap<>(this.artifactIdsByGroupId);
+		Set<String> copiedGroupIds = new HashSet<>();
+		for (Exclusion exclusion : exclusions) {
+			String groupId = exclusion.getGroupId();
+			Set<String> artifactIds = artifactIdsByGroupId.get(groupId);
+			if (artifactIds == null || !artifactIds.contains(exclusion.getArtifactId())) {
+				if (copiedGroupIds.add(groupId)) {
+					artifactIds = (artifactIds != null) ? new HashSet<>(artifactIds) : new HashSet<>();
+					artifactIdsByGroupId.put(groupId, artifactIds);
+				}
+				artifactIds.add(exclusion.getArtifactId());
+			}
+		}
+		return new ExclusionSet(artifactIdsByGroupId);
+	}
+
+	private boolean matchesAll(Collection<Exclusion> exclusions) {
+		for (Exclusion exclusion : exclusions) {
+			if (!excludes(exclusion.getGroupId(), exclusion.getArtifactId())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+}
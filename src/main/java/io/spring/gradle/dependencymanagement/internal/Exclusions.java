@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2022 the original author or authors.
+ * Copyright 2014-2024 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,25 +17,25 @@
 package io.spring.gradle.dependencymanagement.internal;
 
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
 
 /**
- * A set of dependency exclusions.
+ * A thread-safe set of dependency exclusions.
  *
  * @author Andy Wilkinson
  */
 class Exclusions {
 
-	private final Map<String, Set<Exclusion>> exclusionsByDependency = new HashMap<>();
+	private final Map<String, Set<Exclusion>> exclusionsByDependency = new ConcurrentHashMap<>();
 
 	void add(String dependency, Collection<Exclusion> exclusionsForDependency) {
 		if (exclusionsForDependency.isEmpty()) {
 			return;
 		}
-		this.exclusionsByDependency.computeIfAbsent(dependency, (key) -> new HashSet<>())
+		this.exclusionsByDependency.computeIfAbsent(dependency, (key) -> ConcurrentHashMap.newKeySet())
 			.addAll(exclusionsForDependency);
 	}
 
@@ -47,6 +47,31 @@ class Exclusions {
 		return this.exclusionsByDependency.get(dependency);
 	}
 
+	boolean isEmpty() {
+		return this.exclusionsByDependency.isEmpty();
+	}
+
+	void forEach(BiConsumer<String, Set<Exclusion>> action) {
+		this.exclusionsByDependency.forEach(action);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if ((obj == null) || (getClass() != obj.getClass())) {
+			return false;
+		}
+		Exclusions other = (Exclusions) obj;
+		return this.exclusionsByDependency.equals(other.exclusionsByDependency);
+	}
+
+	@Override
+	public int hashCode() {
+		return this.exclusionsByDependency.hashCode();
+	}
+
 	@Override
 	public String toString() {
 		return this.exclusionsByDependency.toString();
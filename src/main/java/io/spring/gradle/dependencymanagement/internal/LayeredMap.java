@@ -0,0 +1,138 @@
+/*
+ * Copyright 2014-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A read-only {@link Map} view of a list of layers, each of which is a map. When more
+ * than one layer contains an entry for a key, the entry from the first of those layers is
+ * used. The layers are read through rather than copied so changes to a layer are visible
+ * in the view. Layers must not contain {@code null} values.
+ *
+ * @author Andy Wilkinson
+ */
+final class LayeredMap extends AbstractMap<String, String> {
+
+	private final List<Map<String, String>> layers;
+
+	/**
+	 * Creates a new {@code LayeredMap} of the given {@code layers} in order of
+	 * precedence.
+	 * @param layers the layers, highest precedence first
+	 */
+	LayeredMap(List<Map<String, String>> layers) {
+		this.layers = layers;
+	}
+
+	@Override
+	public String get(Object key) {
+		for (Map<String, String> layer : this.layers) {
+			String value = layer.get(key);
+			if (value != null) {
+				return value;
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return get(key) != null;
+	}
+
+	@Override
+	public Set<Entry<String, String>> entrySet() {
+		return new AbstractSet<Entry<String, String>>() {
+
+			@Override
+			public Iterator<Entry<String, String>> iterator() {
+				return new LayeredIterator();
+			}
+
+			@Override
+			public int size() {
+				int size = 0;
+				for (Iterator<Entry<String, String>> iterator = iterator(); iterator.hasNext(); iterator.next()) {
+					size++;
+				}
+				return size;
+			}
+
+		};
+	}
+
+	private boolean isShadowed(String key, int layerIndex) {
+		for (int i = 0; i < layerIndex; i++) {
+			if (this.layers.get(i).containsKey(key)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * An {@link Iterator} over the entries of each layer that skips those that are
+	 * shadowed by an entry in a layer of higher precedence.
+	 */
+	private final class LayeredIterator implements Iterator<Entry<String, String>> {
+
+		private int layerIndex = -1;
+
+		private Iterator<Entry<String, String>> delegate;
+
+		private Entry<String, String> next;
+
+		@Override
+		public boolean hasNext() {
+			while (this.next == null) {
+				if (this.delegate == null || !this.delegate.hasNext()) {
+					this.layerIndex++;
+					if (this.layerIndex >= LayeredMap.this.layers.size()) {
+						return false;
+					}
+					this.delegate = LayeredMap.this.layers.get(this.layerIndex).entrySet().iterator();
+				}
+				else {
+					Entry<String, String> candidate = this.delegate.next();
+					if (!isShadowed(candidate.getKey(), this.layerIndex)) {
+						this.next = new SimpleImmutableEntry<>(candidate);
+					}
+				}
+			}
+			return true;
+		}
+
+		@Override
+		public Entry<String, String> next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			Entry<String, String> next = this.next;
+			this.next = null;
+			return next;
+		}
+
+	}
+
+}
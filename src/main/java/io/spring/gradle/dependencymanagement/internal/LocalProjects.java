@@ -0,0 +1,95 @@
+/*
+ * Copyright 2014-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.gradle.api.Project;
+import org.gradle.api.invocation.Gradle;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+
+/**
+ * A build-scoped registry of the {@code group:name} coordinates of the projects in the
+ * build to which the plugin has been applied. Each project publishes its own coordinates
+ * once it has been evaluated so that identifying a dependency on a local project does not
+ * require access to the model of any other project.
+ *
+ * @author Andy Wilkinson
+ */
+public abstract class LocalProjects implements BuildService<BuildServiceParameters.None> {
+
+	private final Set<String> coordinates = ConcurrentHashMap.newKeySet();
+
+	private final AtomicInteger modificationCount = new AtomicInteger();
+
+	/**
+	 * Registers the registry with the given {@code gradle} if it has not already been
+	 * registered.
+	 * @param gradle the gradle
+	 * @return a provider of the registry
+	 */
+	public static Provider<LocalProjects> register(Gradle gradle) {
+		String name = LocalProjects.class.getName() + "_"
+				+ System.identityHashCode(LocalProjects.class.getClassLoader());
+		return gradle.getSharedServices().registerIfAbsent(name, LocalProjects.class, (spec) -> {
+		});
+	}
+
+	/**
+	 * Adds the coordinates of the given {@code project} to the registry once it has been
+	 * evaluated and its group is known.
+	 * @param project the project to which the plugin has been applied
+	 */
+	void add(Project project) {
+		if (project.getState().getExecuted()) {
+			addCoordinates(project);
+		}
+		else {
+			project.afterEvaluate(this::addCoordinates);
+		}
+	}
+
+	/**
+	 * Returns a read-only view of the {@code group:name} coordinates of the local
+	 * projects.
+	 * @return the coordinates
+	 */
+	Set<String> getCoordinates() {
+		return Collections.unmodifiableSet(this.coordinates);
+	}
+
+	/**
+	 * Returns the modification count of the registry which is incremented each time a
+	 * project is added to it.
+	 * @return the modification count
+	 */
+	int getModificationCount() {
+		return this.modificationCount.get();
+	}
+
+	private void addCoordinates(Project project) {
+		if (this.coordinates.add(project.getGroup() + ":" + project.getName())) {
+			this.modificationCount.incrementAndGet();
+		}
+	}
+
+}
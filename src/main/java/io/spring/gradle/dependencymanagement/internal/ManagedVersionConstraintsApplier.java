@@ -0,0 +1,137 @@
+/*
+ * Copyright 2014-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.gradle.api.Project;
+import org.gradle.api.artifacts.Configuration;
+import org.gradle.api.artifacts.Dependency;
+import org.gradle.api.artifacts.DependencyConstraint;
+import org.gradle.api.artifacts.ModuleDependency;
+import org.gradle.api.artifacts.ProjectDependency;
+import org.gradle.api.artifacts.dsl.DependencyConstraintHandler;
+import org.gradle.api.provider.Provider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Applies managed versions to a configuration in bulk as dependency constraints rather
+ * than with a callback that is called for every dependency in the graph. Each managed
+ * version is applied as a strict constraint so that, as with the callback, it is used
+ * even when a higher version is required elsewhere in the graph. When dependency
+ * management is overridden by dependencies, a dependency that is declared in the
+ * configuration with a version is instead constrained to require that version. As when
+ * managed versions are applied using a callback, a dependency that is declared in the
+ * configuration with a dynamic version and a dependency on a local project are left
+ * unmanaged. A managed version that is dynamic cannot be expressed as a strict
+ * constraint with the same meaning and continues to be applied by the callback.
+ *
+ * @author Andy Wilkinson
+ */
+class ManagedVersionConstraintsApplier {
+
+	private static final Logger logger = LoggerFactory.getLogger(ManagedVersionConstraintsApplier.class);
+
+	private final Project project;
+
+	private final DependencyManagementContainer dependencyManagementContainer;
+
+	private final DependencyManagementSettings dependencyManagementSettings;
+
+	private final Provider<LocalProjects> localProjects;
+
+	ManagedVersionConstraintsApplier(Project project, DependencyManagementContainer dependencyManagementContainer,
+			DependencyManagementSettings dependencyManagementSettings, Provider<LocalProjects> localProjects) {
+		this.project = project;
+		this.dependencyManagementContainer = dependencyManagementContainer;
+		this.dependencyManagementSettings = dependencyManagementSettings;
+		this.localProjects = localProjects;
+	}
+
+	/**
+	 * Returns whether managed versions should be applied to the given
+	 * {@code configuration} as constraints. Constraints are only applied to
+	 * configurations that can be resolved but cannot be consumed so that they are not
+	 * visible to other projects.
+	 * @param configuration the configuration
+	 * @return {@code true} if constraints should be applied, otherwise {@code false}
+	 */
+	boolean isApplicable(Configuration configuration) {
+		return this.dependencyManagementSettings.isApplyManagedVersionsAsConstraints()
+				&& configuration.isCanBeResolved() && !configuration.isCanBeConsumed();
+	}
+
+	/**
+	 * Returns whether the given managed {@code version} can be applied as a constraint.
+	 * @param version the managed version
+	 * @return {@code true} if the version can be applied as a constraint, otherwise
+	 * {@code false} if it must be applied by the callback
+	 */
+	static boolean canBeConstrained(String version) {
+		return !Versions.isDynamic(version);
+	}
+
+	List<DependencyConstraint> createConstraints(Configuration configuration) {
+		Set<String> unmanaged = new HashSet<>(this.localProjects.get().getCoordinates());
+		Map<String, String> declaredVersions = new LinkedHashMap<>();
+		for (Dependency dependency : configuration.getAllDependencies()) {
+			String id = dependency.getGroup() + ":" + dependency.getName();
+			String version = dependency.getVersion();
+			if (dependency instanceof ProjectDependency || (version != null && Versions.isDynamic(version))) {
+				unmanaged.add(id);
+			}
+			else if (version != null && dependency instanceof ModuleDependency
+					&& this.dependencyManagementSettings.isOverriddenByDependencies()) {
+				declaredVersions.putIfAbsent(id, version);
+			}
+		}
+		declaredVersions.keySet().removeAll(unmanaged);
+		unmanaged.addAll(declaredVersions.keySet());
+		DependencyConstraintHandler handler = this.project.getDependencies().getConstraints();
+		List<DependencyConstraint> constraints = new ArrayList<>();
+		declaredVersions.forEach((id, version) -> constraints.add(handler.create(id,
+				(constraint) -> require(constraint, version))));
+		for (Map.Entry<String, String> managedVersion : this.dependencyManagementContainer
+			.getManagedVersionsForConfiguration(configuration)
+			.entrySet()) {
+			if (!unmanaged.contains(managedVersion.getKey()) && canBeConstrained(managedVersion.getValue())) {
+				constraints.add(handler.create(managedVersion.getKey(),
+						(constraint) -> strictly(constraint, managedVersion.getValue())));
+			}
+		}
+		logger.info("Created {} managed version constraints for configuration '{}'", constraints.size(),
+				configuration.getName());
+		return constraints;
+	}
+
+	private void require(DependencyConstraint constraint, String version) {
+		constraint.version((versionConstraint) -> versionConstraint.require(version));
+		constraint.because("Managed by the dependency management plugin and overridden by a dependency");
+	}
+
+	private void strictly(DependencyConstraint constraint, String version) {
+		constraint.version((versionConstraint) -> versionConstraint.strictly(version));
+		constraint.because("Managed by the dependency management plugin");
+	}
+
+}
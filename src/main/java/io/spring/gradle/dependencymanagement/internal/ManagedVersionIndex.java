@@ -0,0 +1,184 @@
+/*
+ * Copyright 2014-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An immutable index of the modules that are of interest when configuring the versions of
+ * a configuration's dependencies. Each module records its managed version, with the
+ * dependency management of the configuration's hierarchy and the global dependency
+ * management already merged by precedence, whether it is a direct dependency of the
+ * configuration, and whether it is a local project. Modules are indexed by group and then
+ * by name so that a lookup does not require a key to be created.
+ *
+ * @author Andy Wilkinson
+ */
+final class ManagedVersionIndex {
+
+	private final Map<String, Map<String, Module>> modules;
+
+	private final int modificationCount;
+
+	private final int localProjectsModificationCount;
+
+	private ManagedVersionIndex(Map<String, Map<String, Module>> modules, int modificationCount,
+			int localProjectsModificationCount) {
+		this.modules = modules;
+		this.modificationCount = modificationCount;
+		this.localProjectsModificationCount = localProjectsModificationCount;
+	}
+
+	/**
+	 * Creates a new index of the given {@code managedVersions} that are keyed by
+	 * {@code group:name}.
+	 * @param managedVersions the managed versions
+	 * @param modificationCount the modification count of the dependency management from
+	 * which the managed versions were taken
+	 * @return the index
+	 */
+	static ManagedVersionIndex of(Map<String, String> managedVersions, int modificationCount) {
+		return of(managedVersions, Collections.emptySet(), Collections.emptySet(), modificationCount, 0);
+	}
+
+	/**
+	 * Creates a new index of the given {@code managedVersions}, {@code directDependencies},
+	 * and {@code localProjects}, all of which are keyed by {@code group:name}.
+	 * @param managedVersions the managed versions
+	 * @param directDependencies the direct dependencies of the configuration
+	 * @param localProjects the local projects
+	 * @param modificationCount the modification count of the dependency management from
+	 * which the managed versions were taken
+	 * @param localProjectsModificationCount the modification count of the local projects
+	 * @return the index
+	 */
+	static ManagedVersionIndex of(Map<String, String> managedVersions, Set<String> directDependencies,
+			Set<String> localProjects, int modificationCount, int localProjectsModificationCount) {
+		Map<String, Map<String, Module>> modules = new HashMap<>();
+		for (Map.Entry<String, String> entry : managedVersions.entrySet()) {
+			add(modules, entry.getKey(), new Module(entry.getValue(), false, false));
+		}
+		for (String directDependency : directDependencies) {
+			add(modules, directDependency, Module.DIRECT_DEPENDENCY);
+		}
+		for (String localProject : localProjects) {
+			add(modules, localProject, Module.LOCAL_PROJECT);
+		}
+		modules.replaceAll((group, names) -> Collections.unmodifiableMap(names));
+		return new ManagedVersionIndex(Collections.unmodifiableMap(modules), modificationCount,
+				localProjectsModificationCount);
+	}
+
+	private static void add(Map<String, Map<String, Module>> modules, String id, Module module) {
+		int separator = id.indexOf(':');
+		modules.computeIfAbsent(id.substring(0, separator), (group) -> new HashMap<>())
+			.merge(id.substring(separator + 1), module, Module::merge);
+	}
+
+	/**
+	 * Returns the module with the given {@code group} and {@code name}. A module that is
+	 * not known to the index is neither managed, nor a direct dependency, nor a local
+	 * project.
+	 * @param group the module's group
+	 * @param name the module's name
+	 * @return the module, never {@code null}
+	 */
+	Module getModule(String group, String name) {
+		Map<String, Module> names = this.modules.get(group);
+		Module module = (names != null) ? names.get(name) : null;
+		return (module != null) ? module : Module.UNKNOWN;
+	}
+
+	/**
+	 * Returns the managed version of the dependency with the given {@code group} and
+	 * {@code name}.
+	 * @param group the dependency's group
+	 * @param name the dependency's name
+	 * @return the managed version or {@code null}
+	 */
+	String getManagedVersion(String group, String name) {
+		return getModule(group, name).getManagedVersion();
+	}
+
+	int getModificationCount() {
+		return this.modificationCount;
+	}
+
+	int getLocalProjectsModificationCount() {
+		return this.localProjectsModificationCount;
+	}
+
+	/**
+	 * A module in the index.
+	 */
+	static final class Module {
+
+		private static final Module UNKNOWN = new Module(null, false, false);
+
+		private static final Module DIRECT_DEPENDENCY = new Module(null, true, false);
+
+		private static final Module LOCAL_PROJECT = new Module(null, false, true);
+
+		private final String managedVersion;
+
+		private final boolean directDependency;
+
+		private final boolean localProject;
+
+		private Module(String managedVersion, boolean directDependency, boolean localProject) {
+			this.managedVersion = managedVersion;
+			this.directDependency = directDependency;
+			this.localProject = localProject;
+		}
+
+		/**
+		 * Returns the managed version of the module.
+		 * @return the managed version or {@code null}
+		 */
+		String getManagedVersion() {
+			return this.managedVersion;
+		}
+
+		/**
+		 * Returns whether the module is a direct dependency of the configuration.
+		 * @return {@code true} if the module is a direct dependency, otherwise
+		 * {@code false}
+		 */
+		boolean isDirectDependency() {
+			return this.directDependency;
+		}
+
+		/**
+		 * Returns whether the module is a local project.
+		 * @return {@code true} if the module is a local project, otherwise {@code false}
+		 */
+		boolean isLocalProject() {
+			return this.localProject;
+		}
+
+		private Module merge(Module other) {
+			String managedVersion = (this.managedVersion != null) ? this.managedVersion : other.managedVersion;
+			return new Module(managedVersion, this.directDependency || other.directDependency,
+					this.localProject || other.localProject);
+		}
+
+	}
+
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2014-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * An immutable, compact map of managed versions keyed by {@code group:name}. The ids and
+ * versions are held in a single open-addressed array rather than in a map's entries and
+ * are interned so that the same id or version from a bom that is used by many projects or
+ * configurations is only held in memory once.
+ *
+ * @author Andy Wilkinson
+ */
+final class ManagedVersions {
+
+	private static final ManagedVersions EMPTY = new ManagedVersions(new String[2], 0);
+
+	// Each id is at an even index and is followed by its version
+	private final String[] table;
+
+	private final int size;
+
+	private ManagedVersions(String[] table, int size) {
+		this.table = table;
+		this.size = size;
+	}
+
+	/**
+	 * Returns an empty {@code ManagedVersions}.
+	 * @return the empty managed versions
+	 */
+	static ManagedVersions empty() {
+		return EMPTY;
+	}
+
+	/**
+	 * Creates a new {@code ManagedVersions} containing the given {@code versions} that
+	 * are keyed by {@code group:name}.
+	 * @param versions the versions
+	 * @return the managed versions
+	 */
+	static ManagedVersions of(Map<String, String> versions) {
+		if (versions.isEmpty()) {
+			return EMPTY;
+		}
+		int capacity = Integer.highestOneBit(versions.size() * 2 - 1) << 1;
+		String[] table = new String[capacity * 2];
+		for (Map.Entry<String, String> entry : versions.entrySet()) {
+			int slot = slot(entry.getKey(), capacity);
+			while (table[slot * 2] != null) {
+				slot = (slot + 1) & (capacity - 1);
+			}
+			table[slot * 2] = intern(entry.getKey());
+			table[slot * 2 + 1] = intern(entry.getValue());
+		}
+		return new ManagedVersions(table, versions.size());
+	}
+
+	/**
+	 * Returns a canonical representation of the given {@code string}. The JVM holds
+	 * interned strings weakly so they do not outlive the builds that use them.
+	 * @param string the string to intern
+	 * @return the interned string
+	 */
+	static String intern(String string) {
+		return (string != null) ? string.intern() : null;
+	}
+
+	/**
+	 * Returns the managed version of the dependency with the given {@code id}.
+	 * @param id the id of the dependency in the form {@code group:name}
+	 * @return the version or {@code null}
+	 */
+	String get(String id) {
+		if (this.size == 0) {
+			return null;
+		}
+		int capacity = this.table.length / 2;
+		int slot = slot(id, capacity);
+		while (this.table[slot * 2] != null) {
+			if (this.table[slot * 2].equals(id)) {
+				return this.table[slot * 2 + 1];
+			}
+			slot = (slot + 1) & (capacity - 1);
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the number of managed versions.
+	 * @return the number of managed versions
+	 */
+	int size() {
+		return this.size;
+	}
+
+	/**
+	 * Performs the given {@code action} for each id and version.
+	 * @param action the action to perform
+	 */
+	void forEach(BiConsumer<String, String> action) {
+		for (int i = 0; i < this.table.length; i += 2) {
+			if (this.table[i] != null) {
+				action.accept(this.table[i], this.table[i + 1]);
+			}
+		}
+	}
+
+	/**
+	 * Returns a read-only {@link Map} view of these managed versions.
+	 * @return the map view
+	 */
+	Map<String, String> asMap() {
+		return new AbstractMap<String, String>() {
+
+			@Override
+			public String get(Object key) {
+				return (key instanceof String) ? ManagedVersions.this.get((String) key) : null;
+			}
+
+			@Override
+			public boolean containsKey(Object key) {
+				return get(key) != null;
+			}
+
+			@Override
+			public Set<Entry<String, String>> entrySet() {
+				return new AbstractSet<Entry<String, String>>() {
+
+					@Override
+					public Iterator<Entry<String, String>> iterator() {
+						return new EntryIterator();
+					}
+
+					@Override
+					public int size() {
+						return ManagedVersions.this.size;
+					}
+
+				};
+			}
+
+		};
+	}
+
+	private static int slot(String id, int capacity) {
+		int hash = id.hashCode();
+		return (hash ^ (hash >>> 16)) & (capacity - 1);
+	}
+
+	private final class EntryIterator implements Iterator<Map.Entry<String, String>> {
+
+		private int index;
+
+		@Override
+		public boolean hasNext() {
+			while (this.index < ManagedVersions.this.table.length && ManagedVersions.this.table[this.index] == null) {
+				this.index += 2;
+			}
+			return this.index < ManagedVersions.this.table.length;
+		}
+
+		@Override
+		public Map.Entry<String, String> next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			Map.Entry<String, String> entry = new AbstractMap.SimpleImmutableEntry<>(
+					ManagedVersions.this.table[this.index], ManagedVersions.this.table[this.index + 1]);
+			this.index += 2;
+			return entry;
+		}
+
+	}
+
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2014-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.gradle.api.invocation.Gradle;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+
+/**
+ * A build-scoped cache of the {@link Exclusions} declared in the poms of dependencies,
+ * shared by every project in the build. Exclusions are cached against the
+ * {@code groupId:artifactId:version} of the pom in which they were declared.
+ *
+ * @author Andy Wilkinson
+ */
+public abstract class PomExclusionsCache implements BuildService<BuildServiceParameters.None> {
+
+	private final Map<String, Exclusions> exclusions = new ConcurrentHashMap<>();
+
+	/**
+	 * Registers the cache with the given {@code gradle} if it has not already been
+	 * registered.
+	 * @param gradle the gradle
+	 * @return a provider of the cache
+	 */
+	public static Provider<PomExclusionsCache> register(Gradle gradle) {
+		String name = PomExclusionsCache.class.getName() + "_"
+				+ System.identityHashCode(PomExclusionsCache.class.getClassLoader());
+		return gradle.getSharedServices().registerIfAbsent(name, PomExclusionsCache.class, (spec) -> {
+		});
+	}
+
+	Exclusions get(String groupId, String artifactId, String version) {
+		return this.exclusions.get(createKey(groupId, artifactId, version));
+	}
+
+	void put(String groupId, String artifactId, String version, Exclusions exclusions) {
+		this.exclusions.putIfAbsent(createKey(groupId, artifactId, version), exclusions);
+	}
+
+	private String createKey(String groupId, String artifactId, String version) {
+		return groupId + ":" + artifactId + ":" + version;
+	}
+
+}
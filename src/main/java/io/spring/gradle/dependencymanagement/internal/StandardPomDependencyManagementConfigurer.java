@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2023 the original author or authors.
+ * Copyright 2014-2024 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,23 +18,16 @@ package io.spring.gradle.dependencymanagement.internal;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import groovy.namespace.QName;
 import groovy.util.Node;
 import io.spring.gradle.dependencymanagement.internal.DependencyManagementSettings.PomCustomizationSettings;
 import io.spring.gradle.dependencymanagement.internal.pom.Coordinates;
 import io.spring.gradle.dependencymanagement.internal.pom.Dependency;
-import io.spring.gradle.dependencymanagement.internal.pom.Pom;
-import io.spring.gradle.dependencymanagement.internal.pom.PomReference;
-import io.spring.gradle.dependencymanagement.internal.pom.PomResolver;
-import io.spring.gradle.dependencymanagement.internal.properties.ProjectPropertySource;
-import io.spring.gradle.dependencymanagement.internal.properties.PropertySource;
 import io.spring.gradle.dependencymanagement.maven.PomDependencyManagementConfigurer;
-import org.gradle.api.Project;
 import org.gradle.api.XmlProvider;
+import org.gradle.api.provider.Provider;
 
 /**
  * Standard implementation of {@link PomDependencyManagementConfigurer}.
@@ -44,8 +37,6 @@ import org.gradle.api.XmlProvider;
  */
 public class StandardPomDependencyManagementConfigurer implements PomDependencyManagementConfigurer {
 
-	private static final PropertySource EMPTY_PROPERTY_SOURCE = (name) -> null;
-
 	private static final String NODE_NAME_DEPENDENCY_MANAGEMENT = "dependencyManagement";
 
 	private static final String NODE_NAME_DEPENDENCIES = "dependencies";
@@ -68,31 +59,22 @@ public class StandardPomDependencyManagementConfigurer implements PomDependencyM
 
 	private static final String NODE_NAME_CLASSIFIER = "classifier";
 
-	private final DependencyManagement dependencyManagement;
+	private final Provider<DependencyManagementSnapshot> dependencyManagement;
 
 	private final PomCustomizationSettings settings;
 
-	private final PomResolver pomResolver;
-
-	private final Project project;
-
 	/**
 	 * Creates a new {@code StandardPomDependencyManagementConfigurer} that will configure
-	 * the pom's dependency management to reflect the given {@code dependencyManagement}.
-	 * The given {@code settings} will control how the dependency management is applied to
-	 * the pom.
-	 * @param dependencyManagement the dependency management
+	 * the pom's dependency management to reflect the snapshot of dependency management
+	 * provided by the given {@code dependencyManagement} provider. The given
+	 * {@code settings} will control how the dependency management is applied to the pom.
+	 * @param dependencyManagement provider of the dependency management snapshot
 	 * @param settings the customization settings
-	 * @param pomResolver resolves imported boms during dependency management
-	 * configuration
-	 * @param project owner of the pom that is being configured
 	 */
-	public StandardPomDependencyManagementConfigurer(DependencyManagement dependencyManagement,
-			PomCustomizationSettings settings, PomResolver pomResolver, Project project) {
+	public StandardPomDependencyManagementConfigurer(Provider<DependencyManagementSnapshot> dependencyManagement,
+			PomCustomizationSettings settings) {
 		this.dependencyManagement = dependencyManagement;
 		this.settings = settings;
-		this.pomResolver = pomResolver;
-		this.project = project;
 	}
 
 	@Override
@@ -116,8 +98,10 @@ public class StandardPomDependencyManagementConfigurer implements PomDependencyM
 		if (managedDependenciesNode == null) {
 			managedDependenciesNode = dependencyManagementNode.appendNode(NODE_NAME_DEPENDENCIES);
 		}
-		configureBomImports(managedDependenciesNode);
-		configureManagedDependencies(managedDependenciesNode, findChild(pom, NODE_NAME_DEPENDENCIES));
+		DependencyManagementSnapshot dependencyManagement = this.dependencyManagement.get();
+		configureBomImports(managedDependenciesNode, dependencyManagement);
+		configureManagedDependencies(managedDependenciesNode, findChild(pom, NODE_NAME_DEPENDENCIES),
+				dependencyManagement);
 	}
 
 	private Node findChild(Node node, String name) {
@@ -137,57 +121,19 @@ public class StandardPomDependencyManagementConfigurer implements PomDependencyM
 		return (actual instanceof QName && ((QName) actual).getLocalPart().equals(wanted)) || actual.equals(wanted);
 	}
 
-	private void configureBomImports(Node dependencies) {
-		List<PomReference> bomReferences = this.dependencyManagement.getImportedBomReferences();
-		Map<String, Dependency> withoutPropertiesManagedDependencies = getManagedDependenciesById(bomReferences,
-				EMPTY_PROPERTY_SOURCE);
-		Map<String, Dependency> withPropertiesManagedDependencies = getManagedDependenciesById(bomReferences,
-				new ProjectPropertySource(this.project));
-		List<Dependency> overrides = new ArrayList<>();
-		for (Map.Entry<String, Dependency> withPropertyEntry : withPropertiesManagedDependencies.entrySet()) {
-			Dependency withoutPropertyDependency = withoutPropertiesManagedDependencies.get(withPropertyEntry.getKey());
-			if (differentVersions(withoutPropertyDependency, withPropertyEntry.getValue())) {
-				overrides.add(withPropertyEntry.getValue());
-			}
-		}
-		for (Dependency override : overrides) {
+	private void configureBomImports(Node dependencies, DependencyManagementSnapshot dependencyManagement) {
+		for (Dependency override : dependencyManagement.getBomOverrides()) {
 			appendDependencyNode(dependencies, override.getCoordinates(), override.getScope(), override.getType());
 		}
-		List<PomReference> importOrderBomReferences = new ArrayList<>(bomReferences);
-		Collections.reverse(importOrderBomReferences);
-		for (PomReference bomReference : importOrderBomReferences) {
-			addImport(dependencies, bomReference);
-		}
-	}
-
-	private Map<String, Dependency> getManagedDependenciesById(List<PomReference> bomReferences,
-			PropertySource propertySource) {
-		Map<String, Dependency> managedDependencies = new HashMap<>();
-		for (Pom pom : this.pomResolver.resolvePoms(bomReferences, propertySource)) {
-			for (Dependency dependency : pom.getManagedDependencies()) {
-				managedDependencies.put(createId(dependency), dependency);
-			}
-		}
-		return managedDependencies;
-	}
-
-	private String createId(Dependency dependency) {
-		Coordinates coordinates = dependency.getCoordinates();
-		return String.format("%s:%s:%s:%s", coordinates.getGroupAndArtifactId(), dependency.getScope(),
-				dependency.getType(), dependency.getClassifier());
-	}
-
-	private boolean differentVersions(Dependency dependency1, Dependency dependency2) {
-		if (dependency1 == null) {
-			return true;
+		List<Coordinates> importOrderBoms = new ArrayList<>(dependencyManagement.getImportedBoms());
+		Collections.reverse(importOrderBoms);
+		for (Coordinates bom : importOrderBoms) {
+			addImport(dependencies, bom);
 		}
-		String version1 = dependency1.getCoordinates().getVersion();
-		String version2 = dependency2.getCoordinates().getVersion();
-		return !version1.equals(version2);
 	}
 
-	private void addImport(Node dependencies, PomReference importedBom) {
-		appendDependencyNode(dependencies, importedBom.getCoordinates(), "import", "pom");
+	private void addImport(Node dependencies, Coordinates importedBom) {
+		appendDependencyNode(dependencies, importedBom, "import", "pom");
 	}
 
 	private Node appendDependencyNode(Node parent, Coordinates coordinates, String scope, String type) {
@@ -204,8 +150,9 @@ public class StandardPomDependencyManagementConfigurer implements PomDependencyM
 		return dependencyNode;
 	}
 
-	private void configureManagedDependencies(Node managedDependencies, Node dependencies) {
-		for (Dependency managedDependency : this.dependencyManagement.getManagedDependencies()) {
+	private void configureManagedDependencies(Node managedDependencies, Node dependencies,
+			DependencyManagementSnapshot dependencyManagement) {
+		for (Dependency managedDependency : dependencyManagement.getManagedDependencies()) {
 			addManagedDependency(managedDependencies, managedDependency, null);
 			if (dependencies != null) {
 				for (String classifier : findClassifiers(dependencies, managedDependency)) {
@@ -16,22 +16,30 @@
 
 package io.spring.gradle.dependencymanagement.internal;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
 
 import org.gradle.api.Action;
 import org.gradle.api.Project;
 import org.gradle.api.artifacts.Configuration;
-import org.gradle.api.artifacts.Dependency;
 import org.gradle.api.artifacts.DependencyResolveDetails;
 import org.gradle.api.artifacts.ModuleVersionSelector;
 import org.gradle.api.artifacts.ResolutionStrategy;
+import org.gradle.api.artifacts.component.ComponentSelector;
+import org.gradle.api.artifacts.component.ProjectComponentSelector;
+import org.gradle.api.provider.Provider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * An {@link Action} to be applied to {@link DependencyResolveDetails} that configures the
- * dependency's version based on the dependency management.
+ * dependency's version based on the dependency management. When managed versions are
+ * applied to the configuration as constraints, only the managed versions that cannot be
+ * expressed as a constraint are applied. Dependencies on projects are recognized as the
+ * graph is resolved, whether or not the plugin has been applied to them, by a
+ * {@link org.gradle.api.artifacts.DependencySubstitution dependency substitution} rule
+ * that records the requested selector immediately before Gradle calls this action for
+ * the same dependency.
  *
  * @author Andy Wilkinson
  */
@@ -39,116 +47,117 @@ class VersionConfiguringAction implements Action<DependencyResolveDetails> {
 
 	private static final Logger logger = LoggerFactory.getLogger(VersionConfiguringAction.class);
 
-	private final Project project;
+	private final Provider<LocalProjects> localProjects;
 
 	private final DependencyManagementContainer dependencyManagementContainer;
 
 	private final Configuration configuration;
 
-	private final LocalProjects localProjects;
+	private final Provider<DependencyManagementMetrics> metrics;
 
-	private Set<String> directDependencies;
+	private final Project project;
 
-	VersionConfiguringAction(Project project, DependencyManagementContainer dependencyManagementContainer,
-			Configuration configuration) {
-		this.project = project;
-		this.localProjects = project.getGradle().getStartParameter().isConfigureOnDemand()
-				? new StandardLocalProjects(project) : new CachingLocalProjects(project);
+	private final DependencyManagementProfiler profiler;
+
+	private final ManagedVersionConstraintsApplier managedVersionConstraintsApplier;
+
+	private final ThreadLocal<ComponentSelector> requested = new ThreadLocal<>();
+
+	private ManagedVersionIndex index;
+
+	VersionConfiguringAction(Provider<LocalProjects> localProjects,
+			DependencyManagementContainer dependencyManagementContainer, Configuration configuration,
+			Provider<DependencyManagementMetrics> metrics, Project project, DependencyManagementProfiler profiler,
+			ManagedVersionConstraintsApplier managedVersionConstraintsApplier) {
+		this.localProjects = localProjects;
 		this.dependencyManagementContainer = dependencyManagementContainer;
 		this.configuration = configuration;
+		this.metrics = metrics;
+		this.project = project;
+		this.profiler = profiler;
+		this.managedVersionConstraintsApplier = managedVersionConstraintsApplier;
 	}
 
 	@Override
 	public void execute(DependencyResolveDetails details) {
+		apply(details);
+	}
+
+	private boolean apply(DependencyResolveDetails details) {
+		if (!this.profiler.isEnabled()) {
+			return configureVersion(details);
+		}
+		long start = System.nanoTime();
+		boolean managed = configureVersion(details);
+		this.profiler.recordVersionCallback(this.configuration, System.nanoTime() - start);
+		return managed;
+	}
+
+	private boolean configureVersion(DependencyResolveDetails details) {
 		ModuleVersionSelector target = details.getTarget();
 		logger.debug("Processing requested dependency '{}' with target '{}", details.getRequested(), target);
-		if (isDependencyOnLocalProject(this.project, target)) {
+		ComponentSelector requested = this.requested.get();
+		this.requested.remove();
+		if (requested instanceof ProjectComponentSelector) {
+			logger.debug("'{}' is a project dependency. Dependency management has not been applied", target);
+			return false;
+		}
+		ManagedVersionIndex.Module module = getIndex().getModule(target.getGroup(), target.getName());
+		if (module.isLocalProject()) {
 			logger.debug("'{}' is a local project dependency. Dependency management has not been applied", target);
-			return;
+			return false;
 		}
-		if (isDirectDependency(target) && Versions.isDynamic(target.getVersion())) {
+		if (module.isDirectDependency() && Versions.isDynamic(target.getVersion())) {
 			logger.debug("'{}' is a direct dependency and has a dynamic version. "
 					+ "Dependency management has not been applied", target);
-			return;
+			return false;
 		}
-		String version = this.dependencyManagementContainer.getManagedVersion(this.configuration, target.getGroup(),
-				target.getName());
+		String version = module.getManagedVersion();
 		if (version != null) {
 			logger.debug("Using version '{}' for dependency '{}'", version, target);
 			details.useVersion(version);
-			return;
+			return true;
 		}
 		logger.debug("No dependency management for dependency '{}'", target);
+		return false;
 	}
 
-	private boolean isDirectDependency(ModuleVersionSelector selector) {
-		if (this.directDependencies == null) {
-			Set<String> directDependencies = new HashSet<>();
-			for (Dependency dependency : this.configuration.getAllDependencies()) {
-				directDependencies.add(dependency.getGroup() + ":" + dependency.getName());
-			}
-			this.directDependencies = directDependencies;
+	private ManagedVersionIndex getIndex() {
+		ManagedVersionIndex index = this.index;
+		LocalProjects localProjects = this.localProjects.get();
+		if (index == null || !this.dependencyManagementContainer.isCurrent(index)
+				|| index.getLocalProjectsModificationCount() != localProjects.getModificationCount()) {
+			index = this.dependencyManagementContainer.getManagedVersionIndex(this.configuration, localProjects,
+					managedVersionFilter());
+			this.index = index;
 		}
-		return this.directDependencies.contains(getId(selector));
+		return index;
 	}
 
-	private boolean isDependencyOnLocalProject(Project project, ModuleVersionSelector selector) {
-		return this.localProjects.getNames().contains(getId(selector));
-	}
-
-	private String getId(ModuleVersionSelector selector) {
-		return selector.getGroup() + ":" + selector.getName();
-	}
-
-	ResolutionStrategy applyTo(Configuration c) {
-		return c.getResolutionStrategy().eachDependency(this);
-	}
-
-	private interface LocalProjects {
-
-		Set<String> getNames();
-
-	}
-
-	private static final class StandardLocalProjects implements LocalProjects {
-
-		private final Project project;
-
-		private StandardLocalProjects(Project project) {
-			this.project = project;
+	private Predicate<String> managedVersionFilter() {
+		if (this.managedVersionConstraintsApplier.isApplicable(this.configuration)) {
+			return (version) -> !ManagedVersionConstraintsApplier.canBeConstrained(version);
 		}
-
-		@Override
-		public Set<String> getNames() {
-			Set<String> names = new HashSet<>();
-			for (Project localProject : this.project.getRootProject().getAllprojects()) {
-				names.add(localProject.getGroup() + ":" + localProject.getName());
-			}
-			return names;
-		}
-
+		return (version) -> true;
 	}
 
-	private static final class CachingLocalProjects implements LocalProjects {
-
-		private final LocalProjects delegate;
-
-		private Set<String> localProjectNames;
-
-		private CachingLocalProjects(Project project) {
-			this.delegate = new StandardLocalProjects(project);
+	ResolutionStrategy applyTo(Configuration c) {
+		c.getResolutionStrategy()
+			.getDependencySubstitution()
+			.all((substitution) -> this.requested.set(substitution.getRequested()));
+		DependencyManagementMetrics metrics = this.metrics.get();
+		if (!metrics.isEnabled()) {
+			return c.getResolutionStrategy().eachDependency(this);
 		}
-
-		@Override
-		public Set<String> getNames() {
-			Set<String> names = this.localProjectNames;
-			if (names == null) {
-				names = this.delegate.getNames();
-				this.localProjectNames = names;
+		AtomicLong managedVersions = new AtomicLong();
+		c.getIncoming()
+			.afterResolve((resolvableDependencies) -> metrics.versionsManaged(
+					DependencyManagementMetrics.path(this.project, this.configuration), managedVersions.getAndSet(0)));
+		return c.getResolutionStrategy().eachDependency((details) -> {
+			if (apply(details)) {
+				managedVersions.incrementAndGet();
 			}
-			return names;
-		}
-
+		});
 	}
 
 }
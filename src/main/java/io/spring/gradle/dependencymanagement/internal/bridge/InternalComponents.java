@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2022 the original author or authors.
+ * Copyright 2014-2024 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,10 +20,12 @@ import io.spring.gradle.dependencymanagement.dsl.DependencyManagementExtension;
 import io.spring.gradle.dependencymanagement.internal.DependencyManagementApplier;
 import io.spring.gradle.dependencymanagement.internal.DependencyManagementConfigurationContainer;
 import io.spring.gradle.dependencymanagement.internal.DependencyManagementContainer;
+import io.spring.gradle.dependencymanagement.internal.DependencyManagementProfiler;
 import io.spring.gradle.dependencymanagement.internal.DependencyManagementSettings;
 import io.spring.gradle.dependencymanagement.internal.ImplicitDependencyManagementCollector;
 import io.spring.gradle.dependencymanagement.internal.dsl.StandardDependencyManagementExtension;
 import io.spring.gradle.dependencymanagement.internal.maven.MavenPomResolver;
+import io.spring.gradle.dependencymanagement.internal.report.DependencyManagementProfileTask;
 import io.spring.gradle.dependencymanagement.internal.report.DependencyManagementReportTask;
 import org.gradle.api.Action;
 import org.gradle.api.Project;
@@ -47,6 +49,8 @@ public class InternalComponents {
 
 	private final DependencyManagementContainer dependencyManagementContainer;
 
+	private final DependencyManagementProfiler profiler = new DependencyManagementProfiler();
+
 	/**
 	 * Creates a new {@code InternalComponents} that will create and provide components
 	 * for the given {@code project}.
@@ -56,15 +60,16 @@ public class InternalComponents {
 		this.project = project;
 		DependencyManagementConfigurationContainer configurationContainer = new DependencyManagementConfigurationContainer(
 				project);
-		MavenPomResolver pomResolver = new MavenPomResolver(project, configurationContainer);
-		this.dependencyManagementContainer = new DependencyManagementContainer(project, pomResolver);
 		DependencyManagementSettings dependencyManagementSettings = new DependencyManagementSettings();
+		MavenPomResolver pomResolver = new MavenPomResolver(project, configurationContainer,
+				dependencyManagementSettings);
+		this.dependencyManagementContainer = new DependencyManagementContainer(project, pomResolver);
 		this.dependencyManagementExtension = new StandardDependencyManagementExtension(
 				this.dependencyManagementContainer, configurationContainer, project, dependencyManagementSettings);
 		this.implicitDependencyManagementCollector = new ImplicitDependencyManagementCollector(
 				this.dependencyManagementContainer, dependencyManagementSettings);
 		this.dependencyManagementApplier = new DependencyManagementApplier(project, this.dependencyManagementContainer,
-				configurationContainer, dependencyManagementSettings, pomResolver);
+				configurationContainer, dependencyManagementSettings, pomResolver, this.profiler);
 	}
 
 	/**
@@ -108,4 +113,23 @@ public class InternalComponents {
 		task.setDescription("Displays the dependency management declared in " + task.getProject() + ".");
 	}
 
+	/**
+	 * Creates a dependency management profile task, assigning it the given
+	 * {@code taskName}. Profiling is only enabled when the task is going to be executed.
+	 * @param taskName the task name
+	 */
+	public void createDependencyManagementProfileTask(String taskName) {
+		this.project.getTasks().register(taskName, DependencyManagementProfileTask.class, this::setupProfileTask);
+		String taskPath = this.project.absoluteProjectPath(taskName);
+		this.project.getGradle()
+			.getTaskGraph()
+			.whenReady((taskGraph) -> this.profiler.setEnabled(taskGraph.hasTask(taskPath)));
+	}
+
+	private void setupProfileTask(DependencyManagementProfileTask task) {
+		task.setProfiler(this.profiler);
+		task.setGroup(HelpTasksPlugin.HELP_GROUP);
+		task.setDescription("Profiles the cost of dependency management in " + task.getProject() + ".");
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2022 the original author or authors.
+ * Copyright 2014-2024 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,7 @@
 package io.spring.gradle.dependencymanagement.internal.dsl;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -28,17 +29,19 @@ import io.spring.gradle.dependencymanagement.dsl.DependencyManagementExtension;
 import io.spring.gradle.dependencymanagement.dsl.DependencyManagementHandler;
 import io.spring.gradle.dependencymanagement.dsl.GeneratedPomCustomizationHandler;
 import io.spring.gradle.dependencymanagement.dsl.ImportsHandler;
+import io.spring.gradle.dependencymanagement.internal.DependencyManagement;
 import io.spring.gradle.dependencymanagement.internal.DependencyManagementConfigurationContainer;
 import io.spring.gradle.dependencymanagement.internal.DependencyManagementContainer;
 import io.spring.gradle.dependencymanagement.internal.DependencyManagementSettings;
 import io.spring.gradle.dependencymanagement.internal.DependencyManagementSettings.PomCustomizationSettings;
 import io.spring.gradle.dependencymanagement.internal.StandardPomDependencyManagementConfigurer;
-import io.spring.gradle.dependencymanagement.internal.maven.MavenPomResolver;
 import org.codehaus.groovy.runtime.ReflectionMethodInvoker;
 import org.gradle.api.Action;
 import org.gradle.api.Project;
 import org.gradle.api.artifacts.Configuration;
 import org.gradle.api.artifacts.ResolutionStrategy;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.provider.ProviderFactory;
 
 /**
  * Standard implementation of {@link DependencyManagementExtension}.
@@ -103,17 +106,25 @@ public class StandardDependencyManagementExtension extends GroovyObjectSupport
 
 	@Override
 	public Map<String, String> getManagedVersions() {
-		return this.dependencyManagementContainer.getManagedVersionsForConfiguration(null);
+		return new HashMap<>(this.dependencyManagementContainer.getManagedVersionsForConfiguration(null));
+	}
+
+	@Override
+	public Provider<String> managedVersion(String group, String name, ProviderFactory providers) {
+		return new StandardDependencyManagementHandler(this.dependencyManagementContainer).managedVersion(group, name,
+				providers);
 	}
 
 	@Override
 	public Map<String, String> getManagedVersionsForConfiguration(Configuration configuration) {
-		return this.dependencyManagementContainer.getManagedVersionsForConfiguration(configuration, false);
+		return new HashMap<>(
+				this.dependencyManagementContainer.getManagedVersionsForConfiguration(configuration, false));
 	}
 
 	@Override
 	public Map<String, String> getManagedVersionsForConfigurationHierarchy(Configuration configuration) {
-		return this.dependencyManagementContainer.getManagedVersionsForConfiguration(configuration, true);
+		return new HashMap<>(
+				this.dependencyManagementContainer.getManagedVersionsForConfiguration(configuration, true));
 	}
 
 	@Override
@@ -139,10 +150,9 @@ public class StandardDependencyManagementExtension extends GroovyObjectSupport
 
 	@Override
 	public StandardPomDependencyManagementConfigurer getPomConfigurer() {
-		return new StandardPomDependencyManagementConfigurer(
-				this.dependencyManagementContainer.getGlobalDependencyManagement(),
-				this.dependencyManagementSettings.getPomCustomizationSettings(),
-				new MavenPomResolver(this.project, this.configurationContainer), this.project);
+		DependencyManagement dependencyManagement = this.dependencyManagementContainer.getGlobalDependencyManagement();
+		return new StandardPomDependencyManagementConfigurer(this.project.provider(dependencyManagement::snapshot),
+				this.dependencyManagementSettings.getPomCustomizationSettings());
 	}
 
 	/**
@@ -216,6 +226,27 @@ public class StandardDependencyManagementExtension extends GroovyObjectSupport
 		this.dependencyManagementSettings.setApplyMavenExclusions(applyMavenExclusions);
 	}
 
+	/**
+	 * Set whether or not Maven-style exclusions should be applied in a single resolution
+	 * pass rather than by first resolving a copy of each configuration. In this mode,
+	 * exclusions declared in the poms of dependencies are applied by Gradle. A copy of a
+	 * configuration that has managed exclusions is still resolved so that they are
+	 * applied with Maven's semantics. The default is {@code false}.
+	 * @param singlePassMavenExclusions {@code true} if Maven-style exclusions should be
+	 * applied in a single resolution pass, otherwise {@code false}
+	 */
+	public void setSinglePassMavenExclusions(boolean singlePassMavenExclusions) {
+		this.dependencyManagementSettings.setSinglePassMavenExclusions(singlePassMavenExclusions);
+	}
+
+	/**
+	 * DSL-friendly variant of {@link #setSinglePassMavenExclusions(boolean)}.
+	 * @param singlePassMavenExclusions whether the setting is enabled
+	 */
+	public void singlePassMavenExclusions(boolean singlePassMavenExclusions) {
+		setSinglePassMavenExclusions(singlePassMavenExclusions);
+	}
+
 	@Override
 	public void setOverriddenByDependencies(boolean overriddenByDependencies) {
 		this.dependencyManagementSettings.setOverriddenByDependencies(overriddenByDependencies);
@@ -226,6 +257,110 @@ public class StandardDependencyManagementExtension extends GroovyObjectSupport
 		this.dependencyManagementSettings.setOverriddenByDependencies(overriddenByDependencies);
 	}
 
+	/**
+	 * Set whether or not managed versions should be applied to resolvable configurations
+	 * as strict dependency constraints rather than by a callback that is called for every
+	 * dependency in the graph. When dependency management is overridden by dependencies,
+	 * a dependency that is declared with a version only requires that version. The
+	 * default is {@code false}.
+	 * @param applyManagedVersionsAsConstraints {@code true} if managed versions should be
+	 * applied as constraints, otherwise {@code false}
+	 */
+	public void setApplyManagedVersionsAsConstraints(boolean applyManagedVersionsAsConstraints) {
+		this.dependencyManagementSettings.setApplyManagedVersionsAsConstraints(applyManagedVersionsAsConstraints);
+	}
+
+	/**
+	 * DSL-friendly variant of {@link #setApplyManagedVersionsAsConstraints(boolean)}.
+	 * @param applyManagedVersionsAsConstraints whether the setting is enabled
+	 */
+	public void applyManagedVersionsAsConstraints(boolean applyManagedVersionsAsConstraints) {
+		setApplyManagedVersionsAsConstraints(applyManagedVersionsAsConstraints);
+	}
+
+	/**
+	 * Set whether or not the results of resolving imported boms should be cached on disk
+	 * in Gradle's user home so that they can be reused by subsequent builds. A cached
+	 * result is only used when the bom, its parents and its imports are unchanged and
+	 * every property that was used while resolving it has the same value. The default
+	 * is {@code false}.
+	 * @param cacheResolvedBoms {@code true} if resolved boms should be cached, otherwise
+	 * {@code false}
+	 */
+	public void setCacheResolvedBoms(boolean cacheResolvedBoms) {
+		this.dependencyManagementSettings.setCacheResolvedBoms(cacheResolvedBoms);
+	}
+
+	/**
+	 * DSL-friendly variant of {@link #setCacheResolvedBoms(boolean)}.
+	 * @param cacheResolvedBoms whether the setting is enabled
+	 */
+	public void cacheResolvedBoms(boolean cacheResolvedBoms) {
+		setCacheResolvedBoms(cacheResolvedBoms);
+	}
+
+	/**
+	 * Set whether or not the effective models of imported boms should be built in
+	 * parallel, using up to Gradle's maximum number of workers. The poms of the boms'
+	 * parents and imports are still resolved one at a time, with each being resolved only
+	 * once. The default is {@code false}.
+	 * @param resolveBomsInParallel {@code true} if the models should be built in
+	 * parallel, otherwise {@code false}
+	 */
+	public void setResolveBomsInParallel(boolean resolveBomsInParallel) {
+		this.dependencyManagementSettings.setResolveBomsInParallel(resolveBomsInParallel);
+	}
+
+	/**
+	 * DSL-friendly variant of {@link #setResolveBomsInParallel(boolean)}.
+	 * @param resolveBomsInParallel whether the setting is enabled
+	 */
+	public void resolveBomsInParallel(boolean resolveBomsInParallel) {
+		setResolveBomsInParallel(resolveBomsInParallel);
+	}
+
+	/**
+	 * Set whether or not the exclusions declared in the poms of dependencies should be
+	 * cached on disk in Gradle's user home so that subsequent builds can apply Maven-style
+	 * exclusions without building the poms' effective models. Cached exclusions are only
+	 * used when a pom and its parents are unchanged. The default is {@code false}.
+	 * @param cachePomExclusions {@code true} if the exclusions should be cached,
+	 * otherwise {@code false}
+	 */
+	public void setCachePomExclusions(boolean cachePomExclusions) {
+		this.dependencyManagementSettings.setCachePomExclusions(cachePomExclusions);
+	}
+
+	/**
+	 * DSL-friendly variant of {@link #setCachePomExclusions(boolean)}.
+	 * @param cachePomExclusions whether the setting is enabled
+	 */
+	public void cachePomExclusions(boolean cachePomExclusions) {
+		setCachePomExclusions(cachePomExclusions);
+	}
+
+	/**
+	 * Set whether or not imported boms should be resolved by streaming their poms, and
+	 * those of their parents and imports, rather than by using Maven's model builder.
+	 * Only the properties, dependency management, and dependencies of the poms are
+	 * processed. Maven's model builder is still used for any bom that declares profiles,
+	 * has a local parent, or uses an expression other than a property or one of the
+	 * project's coordinates. The default is {@code false}.
+	 * @param lightweightBomResolution {@code true} if lightweight bom resolution should be
+	 * used, otherwise {@code false}
+	 */
+	public void setLightweightBomResolution(boolean lightweightBomResolution) {
+		this.dependencyManagementSettings.setLightweightBomResolution(lightweightBomResolution);
+	}
+
+	/**
+	 * DSL-friendly variant of {@link #setLightweightBomResolution(boolean)}.
+	 * @param lightweightBomResolution whether the setting is enabled
+	 */
+	public void lightweightBomResolution(boolean lightweightBomResolution) {
+		setLightweightBomResolution(lightweightBomResolution);
+	}
+
 	/**
 	 * Returns the settings for pom customization.
 	 * @return the pom customization settings
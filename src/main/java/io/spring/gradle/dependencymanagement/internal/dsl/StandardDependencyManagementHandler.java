@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2022 the original author or authors.
+ * Copyright 2014-2024 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 
 package io.spring.gradle.dependencymanagement.internal.dsl;
 
+import java.util.HashMap;
 import java.util.Map;
 
 import groovy.lang.Closure;
@@ -25,6 +26,8 @@ import io.spring.gradle.dependencymanagement.dsl.ImportsHandler;
 import io.spring.gradle.dependencymanagement.internal.DependencyManagementContainer;
 import org.gradle.api.Action;
 import org.gradle.api.artifacts.Configuration;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.provider.ProviderFactory;
 
 /**
  * Standard implementation of {@link DependencyManagementHandler}.
@@ -77,7 +80,13 @@ class StandardDependencyManagementHandler implements DependencyManagementHandler
 
 	@Override
 	public Map<String, String> getManagedVersions() {
-		return this.container.getManagedVersionsForConfiguration(this.configuration);
+		return new HashMap<>(this.container.getManagedVersionsForConfiguration(this.configuration));
+	}
+
+	@Override
+	public Provider<String> managedVersion(String group, String name, ProviderFactory providers) {
+		return providers.provider(
+				() -> this.container.getManagedVersionsForConfiguration(this.configuration).get(group + ":" + name));
 	}
 
 }
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2014-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal.maven;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import io.spring.gradle.dependencymanagement.internal.properties.PropertySource;
+import io.spring.gradle.dependencymanagement.org.apache.maven.model.Parent;
+import io.spring.gradle.dependencymanagement.org.apache.maven.model.Repository;
+import io.spring.gradle.dependencymanagement.org.apache.maven.model.resolution.InvalidRepositoryException;
+import io.spring.gradle.dependencymanagement.org.apache.maven.model.resolution.ModelResolver;
+import io.spring.gradle.dependencymanagement.org.apache.maven.model.resolution.UnresolvableModelException;
+import org.gradle.api.GradleException;
+
+/**
+ * A {@link ModelResolver} that allows models to be built on worker threads while the
+ * resolution of parent and imported poms, which uses Gradle's dependency resolution and
+ * must therefore happen on a thread that is managed by Gradle, is performed on the thread
+ * that created the resolver. Requests made on a worker thread are queued and the worker
+ * waits while the creating thread performs them in {@link #processRequests(int)}. As
+ * requests are performed one at a time, a pom that is needed by several workers is only
+ * resolved once by a caching delegate. The properties that are used to interpolate the
+ * models, which may be backed by the project, are also {@link #propertySource looked up}
+ * on the creating thread.
+ *
+ * @author Andy Wilkinson
+ */
+@SuppressWarnings("deprecation")
+final class CallingThreadModelResolver implements ModelResolver {
+
+	private static final Runnable TASK_COMPLETE = () -> {
+	};
+
+	private final ModelResolver delegate;
+
+	private final Thread callingThread = Thread.currentThread();
+
+	private final BlockingQueue<Runnable> requests = new LinkedBlockingQueue<>();
+
+	CallingThreadModelResolver(ModelResolver delegate) {
+		this.delegate = delegate;
+	}
+
+	@Override
+	public io.spring.gradle.dependencymanagement.org.apache.maven.model.building.ModelSource resolveModel(Parent parent)
+			throws UnresolvableModelException {
+		return resolve(() -> this.delegate.resolveModel(parent));
+	}
+
+	@Override
+	public io.spring.gradle.dependencymanagement.org.apache.maven.model.building.ModelSource resolveModel(
+			io.spring.gradle.dependencymanagement.org.apache.maven.model.Dependency dependency)
+			throws UnresolvableModelException {
+		return resolve(() -> this.delegate.resolveModel(dependency));
+	}
+
+	@Override
+	public io.spring.gradle.dependencymanagement.org.apache.maven.model.building.ModelSource resolveModel(
+			String groupId, String artifactId, String version) throws UnresolvableModelException {
+		return resolve(() -> this.delegate.resolveModel(groupId, artifactId, version));
+	}
+
+	private io.spring.gradle.dependencymanagement.org.apache.maven.model.building.ModelSource resolve(
+			Resolution resolution) throws UnresolvableModelException {
+		if (Thread.currentThread() == this.callingThread) {
+			return resolution.resolve();
+		}
+		try {
+			return performOnCallingThread(resolution::resolve);
+		}
+		catch (ExecutionException ex) {
+			if (ex.getCause() instanceof UnresolvableModelException) {
+				throw (UnresolvableModelException) ex.getCause();
+			}
+			throw rethrow(ex, "Failed to resolve pom");
+		}
+	}
+
+	/**
+	 * Returns a {@link PropertySource} that looks up properties in the given
+	 * {@code delegate} on the thread that created this resolver.
+	 * @param delegate the delegate
+	 * @return the property source
+	 */
+	PropertySource propertySource(PropertySource delegate) {
+		return (name) -> {
+			if (Thread.currentThread() == this.callingThread) {
+				return delegate.getProperty(name);
+			}
+			try {
+				return performOnCallingThread(() -> delegate.getProperty(name));
+			}
+			catch (ExecutionException ex) {
+				throw rethrow(ex, "Failed to get property '" + name + "'");
+			}
+		};
+	}
+
+	private <T> T performOnCallingThread(Callable<T> request) throws ExecutionException {
+		CompletableFuture<T> result = new CompletableFuture<>();
+		this.requests.add(() -> {
+			try {
+				result.complete(request.call());
+			}
+			catch (Throwable ex) {
+				result.completeExceptionally(ex);
+			}
+		});
+		try {
+			return result.get();
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new GradleException("Interrupted while waiting for a request to be performed", ex);
+		}
+	}
+
+	private RuntimeException rethrow(ExecutionException ex, String message) {
+		Throwable cause = ex.getCause();
+		if (cause instanceof RuntimeException) {
+			throw (RuntimeException) cause;
+		}
+		if (cause instanceof Error) {
+			throw (Error) cause;
+		}
+		return new GradleException(message, cause);
+	}
+
+	/**
+	 * Called on a worker thread when a task that uses this resolver has completed.
+	 */
+	void taskComplete() {
+		this.requests.add(TASK_COMPLETE);
+	}
+
+	/**
+	 * Performs the requests made on worker threads until the given number of
+	 * tasks have {@link #taskComplete() completed}. Must be called on the thread that
+	 * created the resolver.
+	 * @param tasks the number of tasks
+	 */
+	void processRequests(int tasks) {
+		int remaining = tasks;
+		try {
+			while (remaining > 0) {
+				Runnable request = this.requests.take();
+				if (request == TASK_COMPLETE) {
+					remaining--;
+				}
+				else {
+					request.run();
+				}
+			}
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new GradleException("Interrupted while building effective models", ex);
+		}
+	}
+
+	@Override
+	public void addRepository(Repository repository) throws InvalidRepositoryException {
+		this.delegate.addRepository(repository);
+	}
+
+	@Override
+	public void addRepository(Repository repository, boolean replace) throws InvalidRepositoryException {
+		this.delegate.addRepository(repository, replace);
+	}
+
+	@Override
+	public ModelResolver newCopy() {
+		return this;
+	}
+
+	@FunctionalInterface
+	private interface Resolution {
+
+		io.spring.gradle.dependencymanagement.org.apache.maven.model.building.ModelSource resolve()
+				throws UnresolvableModelException;
+
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2023 the original author or authors.
+ * Copyright 2014-2024 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,32 +16,53 @@
 
 package io.spring.gradle.dependencymanagement.internal.maven;
 
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 
 import io.spring.gradle.dependencymanagement.internal.DependencyManagementConfigurationContainer;
+import io.spring.gradle.dependencymanagement.internal.properties.PropertySource;
+import io.spring.gradle.dependencymanagement.org.apache.maven.model.Model;
 import io.spring.gradle.dependencymanagement.org.apache.maven.model.Parent;
 import io.spring.gradle.dependencymanagement.org.apache.maven.model.Repository;
 import io.spring.gradle.dependencymanagement.org.apache.maven.model.building.FileModelSource;
+import io.spring.gradle.dependencymanagement.org.apache.maven.model.io.xpp3.MavenXpp3Reader;
 import io.spring.gradle.dependencymanagement.org.apache.maven.model.resolution.InvalidRepositoryException;
 import io.spring.gradle.dependencymanagement.org.apache.maven.model.resolution.ModelResolver;
 import io.spring.gradle.dependencymanagement.org.apache.maven.model.resolution.UnresolvableModelException;
 import org.gradle.api.Project;
 import org.gradle.api.artifacts.Configuration;
 import org.gradle.api.artifacts.Dependency;
+import org.gradle.api.artifacts.ModuleVersionIdentifier;
+import org.gradle.api.artifacts.ResolvedArtifact;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * A {@link ModelResolver} that uses a {@link Configuration} to resolve the
  * {@link io.spring.gradle.dependencymanagement.org.apache.maven.model.building.ModelSource}
- * for a pom. requested model.
+ * for a pom. requested model. Parent and imported poms can be {@link #prefetch
+ * prefetched} so that each level of a hierarchy of poms is resolved using a single
+ * configuration rather than one configuration per pom.
  *
  * @author Andy Wilkinson
  */
 @SuppressWarnings("deprecation")
 class ConfigurationModelResolver implements ModelResolver {
 
-	private final Map<String, FileModelSource> pomCache = new HashMap<>();
+	private static final Logger logger = LoggerFactory.getLogger(ConfigurationModelResolver.class);
+
+	private final Map<String, ResolvedPom> pomCache = new ConcurrentHashMap<>();
 
 	private final Project project;
 
@@ -76,25 +97,92 @@ class ConfigurationModelResolver implements ModelResolver {
 	private io.spring.gradle.dependencymanagement.org.apache.maven.model.building.ModelSource resolveModel(
 			String groupId, String artifactId, String version, Consumer<String> versionHandler) {
 		String coordinates = groupId + ":" + artifactId + ":" + version + "@pom";
-		FileModelSource pom = this.pomCache.get(coordinates);
+		ResolvedPom pom = this.pomCache.get(coordinates);
 		if (pom == null) {
-			pom = resolveModel(coordinates, versionHandler);
-			this.pomCache.put(coordinates, pom);
+			// Resolved outside of computeIfAbsent so that the map is not locked while the
+			// pom is resolved
+			ResolvedPom resolved = resolveModel(coordinates);
+			ResolvedPom existing = this.pomCache.putIfAbsent(coordinates, resolved);
+			pom = (existing != null) ? existing : resolved;
 		}
-		return pom;
+		versionHandler.accept(pom.version);
+		return pom.source;
 	}
 
-	private FileModelSource resolveModel(String coordinates, Consumer<String> versionHandler) {
+	private ResolvedPom resolveModel(String coordinates) {
 		Dependency dependency = this.project.getDependencies().create(coordinates);
 		Configuration configuration = this.configurationContainer.newConfiguration(dependency);
-		versionHandler.accept(configuration.getResolvedConfiguration()
-			.getResolvedArtifacts()
-			.iterator()
-			.next()
-			.getModuleVersion()
-			.getId()
-			.getVersion());
-		return new FileModelSource(configuration.resolve().iterator().next());
+		ResolvedArtifact artifact = configuration.getResolvedConfiguration().getResolvedArtifacts().iterator().next();
+		String version = artifact.getModuleVersion().getId().getVersion();
+		return new ResolvedPom(new FileModelSource(artifact.getFile()), version);
+	}
+
+	/**
+	 * Prefetches the parent and imported poms of the given {@code poms}, and of their
+	 * parents and imports, by reading the raw poms. Each level of the hierarchy is
+	 * resolved using a single configuration. A parent or import whose coordinates cannot
+	 * be determined from the raw poms, for example because they use a version range, is
+	 * not prefetched and will be resolved when it is requested.
+	 * @param poms the poms and the properties that will be used to build their models
+	 */
+	void prefetch(Map<File, PropertySource> poms) {
+		List<RawPom> level = new ArrayList<>();
+		poms.forEach((pom, properties) -> level.add(new RawPom(pom, properties, Collections.emptyMap())));
+		Set<String> seen = new HashSet<>(this.pomCache.keySet());
+		while (!level.isEmpty()) {
+			List<PomRequest> requests = new ArrayList<>();
+			for (RawPom pom : level) {
+				for (PomRequest request : pom.getRequests()) {
+					if (seen.add(request.getCoordinates())) {
+						requests.add(request);
+					}
+				}
+			}
+			level.clear();
+			level.addAll(resolveLevel(requests));
+		}
+	}
+
+	private List<RawPom> resolveLevel(List<PomRequest> requests) {
+		List<RawPom> resolved = new ArrayList<>();
+		List<PomRequest> remaining = requests;
+		while (!remaining.isEmpty()) {
+			Map<String, PomRequest> batch = new LinkedHashMap<>();
+			List<PomRequest> deferred = new ArrayList<>();
+			for (PomRequest request : remaining) {
+				if (batch.putIfAbsent(request.groupId + ":" + request.artifactId, request) != null) {
+					deferred.add(request);
+				}
+			}
+			resolved.addAll(resolveBatch(batch));
+			remaining = deferred;
+		}
+		return resolved;
+	}
+
+	private List<RawPom> resolveBatch(Map<String, PomRequest> batch) {
+		List<RawPom> resolved = new ArrayList<>();
+		try {
+			Configuration configuration = this.configurationContainer.newConfiguration();
+			for (PomRequest request : batch.values()) {
+				configuration.getDependencies().add(this.project.getDependencies().create(request.getCoordinates()));
+			}
+			for (ResolvedArtifact artifact : configuration.getResolvedConfiguration()
+				.getLenientConfiguration()
+				.getArtifacts()) {
+				ModuleVersionIdentifier id = artifact.getModuleVersion().getId();
+				PomRequest request = batch.get(id.getGroup() + ":" + id.getName());
+				if (request != null) {
+					this.pomCache.putIfAbsent(request.getCoordinates(),
+							new ResolvedPom(new FileModelSource(artifact.getFile()), id.getVersion()));
+					resolved.add(new RawPom(artifact.getFile(), request.properties, request.inheritedProperties));
+				}
+			}
+		}
+		catch (RuntimeException ex) {
+			logger.debug("Failed to prefetch poms", ex);
+		}
+		return resolved;
 	}
 
 	@Override
@@ -112,4 +200,150 @@ class ConfigurationModelResolver implements ModelResolver {
 		return this;
 	}
 
+	/**
+	 * A pom that is read without building its effective model to find the parent and
+	 * imported poms that it requires.
+	 */
+	private static final class RawPom {
+
+		private final File pom;
+
+		private final PropertySource properties;
+
+		private final Map<String, String> inheritedProperties;
+
+		private RawPom(File pom, PropertySource properties, Map<String, String> inheritedProperties) {
+			this.pom = pom;
+			this.properties = properties;
+			this.inheritedProperties = inheritedProperties;
+		}
+
+		private List<PomRequest> getRequests() {
+			Model model = read();
+			if (model == null) {
+				return Collections.emptyList();
+			}
+			Map<String, String> modelProperties = new HashMap<>();
+			for (String name : model.getProperties().stringPropertyNames()) {
+				modelProperties.put(name, model.getProperties().getProperty(name));
+			}
+			modelProperties.putAll(this.inheritedProperties);
+			Parent parent = model.getParent();
+			String groupId = (model.getGroupId() != null) ? model.getGroupId()
+					: ((parent != null) ? parent.getGroupId() : null);
+			String version = (model.getVersion() != null) ? model.getVersion()
+					: ((parent != null) ? parent.getVersion() : null);
+			putIfNotNull(modelProperties, "project.groupId", groupId);
+			putIfNotNull(modelProperties, "project.version", version);
+			List<PomRequest> requests = new ArrayList<>();
+			if (parent != null) {
+				addRequest(requests, parent.getGroupId(), parent.getArtifactId(), parent.getVersion(), modelProperties,
+						modelProperties);
+			}
+			if (model.getDependencyManagement() != null) {
+				for (io.spring.gradle.dependencymanagement.org.apache.maven.model.Dependency dependency : model
+					.getDependencyManagement()
+					.getDependencies()) {
+					if ("import".equals(dependency.getScope()) && "pom".equals(dependency.getType())) {
+						addRequest(requests, dependency.getGroupId(), dependency.getArtifactId(),
+								dependency.getVersion(), modelProperties, Collections.emptyMap());
+					}
+				}
+			}
+			return requests;
+		}
+
+		private void putIfNotNull(Map<String, String> properties, String name, String value) {
+			if (value != null) {
+				properties.putIfAbsent(name, value);
+			}
+		}
+
+		private void addRequest(List<PomRequest> requests, String groupId, String artifactId, String version,
+				Map<String, String> modelProperties, Map<String, String> inheritedProperties) {
+			String resolvedGroupId = interpolate(groupId, modelProperties);
+			String resolvedArtifactId = interpolate(artifactId, modelProperties);
+			String resolvedVersion = interpolate(version, modelProperties);
+			if (resolvedGroupId != null && resolvedArtifactId != null && resolvedVersion != null
+					&& !isRange(resolvedVersion)) {
+				requests.add(new PomRequest(resolvedGroupId, resolvedArtifactId, resolvedVersion, this.properties,
+						inheritedProperties));
+			}
+		}
+
+		private String interpolate(String value, Map<String, String> modelProperties) {
+			if (value == null || value.isEmpty()) {
+				return null;
+			}
+			if (!value.contains("${")) {
+				return value;
+			}
+			if (!value.startsWith("${") || value.indexOf('}') != value.length() - 1) {
+				return null;
+			}
+			String name = value.substring(2, value.length() - 1);
+			Object property = this.properties.getProperty(name);
+			String interpolated = (property != null) ? property.toString() : modelProperties.get(name);
+			return (interpolated != null && !interpolated.contains("${")) ? interpolated : null;
+		}
+
+		private boolean isRange(String version) {
+			return version.indexOf('[') >= 0 || version.indexOf('(') >= 0 || version.indexOf(',') >= 0;
+		}
+
+		private Model read() {
+			try (InputStream input = new FileInputStream(this.pom)) {
+				return new MavenXpp3Reader().read(input, false);
+			}
+			catch (Exception ex) {
+				logger.debug("Failed to read {}", this.pom, ex);
+				return null;
+			}
+		}
+
+	}
+
+	/**
+	 * A request for a parent or imported pom that was found in a {@link RawPom}.
+	 */
+	private static final class PomRequest {
+
+		private final String groupId;
+
+		private final String artifactId;
+
+		private final String version;
+
+		private final PropertySource properties;
+
+		private final Map<String, String> inheritedProperties;
+
+		private PomRequest(String groupId, String artifactId, String version, PropertySource properties,
+				Map<String, String> inheritedProperties) {
+			this.groupId = groupId;
+			this.artifactId = artifactId;
+			this.version = version;
+			this.properties = properties;
+			this.inheritedProperties = inheritedProperties;
+		}
+
+		private String getCoordinates() {
+			return this.groupId + ":" + this.artifactId + ":" + this.version + "@pom";
+		}
+
+	}
+
+	private static final class ResolvedPom {
+
+		private final FileModelSource source;
+
+		private final String version;
+
+		private ResolvedPom(FileModelSource source, String version) {
+			this.source = source;
+			this.version = version;
+		}
+
+	}
+
 }
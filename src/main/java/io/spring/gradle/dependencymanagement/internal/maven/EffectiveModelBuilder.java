@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2022 the original author or authors.
+ * Copyright 2014-2024 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,12 +18,24 @@ package io.spring.gradle.dependencymanagement.internal.maven;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.Function;
 
 import io.spring.gradle.dependencymanagement.internal.DependencyManagementConfigurationContainer;
+import io.spring.gradle.dependencymanagement.internal.DependencyManagementMetrics;
+import io.spring.gradle.dependencymanagement.internal.pom.Pom;
 import io.spring.gradle.dependencymanagement.internal.properties.PropertySource;
+import io.spring.gradle.dependencymanagement.internal.properties.RecordingPropertySource;
+import io.spring.gradle.dependencymanagement.org.apache.maven.model.Dependency;
 import io.spring.gradle.dependencymanagement.org.apache.maven.model.Model;
 import io.spring.gradle.dependencymanagement.org.apache.maven.model.building.DefaultModelBuilder;
 import io.spring.gradle.dependencymanagement.org.apache.maven.model.building.DefaultModelBuilderFactory;
@@ -34,7 +46,9 @@ import io.spring.gradle.dependencymanagement.org.apache.maven.model.building.Mod
 import io.spring.gradle.dependencymanagement.org.apache.maven.model.building.ModelCache;
 import io.spring.gradle.dependencymanagement.org.apache.maven.model.building.ModelProblem;
 import io.spring.gradle.dependencymanagement.org.apache.maven.model.resolution.ModelResolver;
+import org.gradle.api.GradleException;
 import org.gradle.api.Project;
+import org.gradle.api.provider.Provider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -47,39 +61,230 @@ final class EffectiveModelBuilder {
 
 	private static final Logger logger = LoggerFactory.getLogger(EffectiveModelBuilder.class);
 
-	private final ModelResolver modelResolver;
+	// Maven's model builder is not thread-safe so each thread that builds models has its
+	// own, reusing it across builds as assembling one is costly
+	private static final ThreadLocal<DefaultModelBuilder> modelBuilder = ThreadLocal
+		.withInitial(EffectiveModelBuilder::createModelBuilder);
 
-	EffectiveModelBuilder(Project project, DependencyManagementConfigurationContainer configurationContainer) {
+	private final ConfigurationModelResolver modelResolver;
+
+	private final Provider<EffectiveModelCache> effectiveModelCache;
+
+	private final Provider<DependencyManagementMetrics> metrics;
+
+	private final Provider<ModelBuilderExecutor> executor;
+
+	EffectiveModelBuilder(Project project, DependencyManagementConfigurationContainer configurationContainer,
+			Provider<EffectiveModelCache> effectiveModelCache, Provider<DependencyManagementMetrics> metrics) {
 		this.modelResolver = new ConfigurationModelResolver(project, configurationContainer);
+		this.effectiveModelCache = effectiveModelCache;
+		this.metrics = metrics;
+		this.executor = ModelBuilderExecutor.register(project.getGradle());
 	}
 
-	List<Model> buildModels(List<ModelInput> inputs) {
-		List<Model> models = new ArrayList<>();
-		InMemoryModelCache cache = new InMemoryModelCache();
+	/**
+	 * Returns the cached effective model for the given {@code input}, if any.
+	 * @param input the input
+	 * @return the cached model or {@code null}
+	 */
+	EffectiveModel getCachedModel(ModelInput input) {
+		EffectiveModel cachedModel = this.effectiveModelCache.get().get(input.pom, input.properties);
+		this.metrics.get().cacheLookup("effectiveModels", cachedModel != null);
+		if (cachedModel != null) {
+			logger.debug("Using cached effective model for {}", input.pom);
+		}
+		return cachedModel;
+	}
+
+	/**
+	 * Builds the effective models for the given {@code inputs}, none of which have a
+	 * {@link #getCachedModel(ModelInput) cached model}. When {@code parallel} is
+	 * {@code true}, models may be built in parallel. When {@code lightweight} is
+	 * {@code true}, each model is first built using a {@link LightweightModelBuilder},
+	 * falling back to Maven's model builder if the pom uses a feature that it does not
+	 * support.
+	 * @param inputs the inputs
+	 * @param parallel whether models may be built in parallel
+	 * @param lightweight whether lightweight models should be built when possible
+	 * @return the effective models, keyed by input
+	 */
+	Map<ModelInput, EffectiveModel> buildModels(List<ModelInput> inputs, boolean parallel, boolean lightweight) {
+		EffectiveModelCache effectiveModelCache = this.effectiveModelCache.get();
+		Map<ModelInput, EffectiveModel> models = new LinkedHashMap<>();
+		Map<ModelInput, RecordingPropertySource> modelsToBuild = new LinkedHashMap<>();
+		Map<File, PropertySource> poms = new LinkedHashMap<>();
 		for (ModelInput input : inputs) {
-			Model model = buildModel(input, cache);
-			if (model != null) {
-				models.add(model);
+			modelsToBuild.put(input, new RecordingPropertySource(input.properties));
+			models.put(input, null);
+			poms.put(input.pom, input.properties);
+		}
+		this.modelResolver.prefetch(poms);
+		if (lightweight) {
+			buildLightweightModels(modelsToBuild, models, effectiveModelCache);
+		}
+		Map<ModelInput, ManagedVersionOverrides> overrides = new LinkedHashMap<>();
+		modelsToBuild.keySet().forEach((input) -> overrides.put(input, new ManagedVersionOverrides()));
+		Map<ModelInput, RecordingModelResolver> modelResolvers = new LinkedHashMap<>();
+		Map<ModelInput, ModelBuildingResult> results = (parallel && modelsToBuild.size() > 1
+				&& this.executor.get().getMaxWorkers() > 1)
+				? buildModelsInParallel(modelsToBuild, modelResolvers, overrides)
+				: buildModels(modelsToBuild, modelResolvers, overrides);
+		for (Map.Entry<ModelInput, ModelBuildingResult> result : results.entrySet()) {
+			ModelInput input = result.getKey();
+			List<ModelProblem> errors = extractErrors(result.getValue().getProblems());
+			reportErrors(errors, input.pom);
+			Model model = result.getValue().getEffectiveModel();
+			if (model == null) {
+				models.remove(input);
+			}
+			else if (!errors.isEmpty()) {
+				models.put(input, new EffectiveModel(model));
+			}
+			else {
+				EffectiveModel effectiveModel = createEffectiveModel(input, model, modelsToBuild.get(input),
+						modelResolvers.get(input), overrides.get(input));
+				models.put(input, effectiveModel);
+				effectiveModelCache.put(input.pom, effectiveModel);
 			}
 		}
 		return models;
 	}
 
-	private Model buildModel(ModelInput input, InMemoryModelCache cache) {
+	private void buildLightweightModels(Map<ModelInput, RecordingPropertySource> modelsToBuild,
+			Map<ModelInput, EffectiveModel> models, EffectiveModelCache effectiveModelCache) {
+		LightweightModelBuilder modelBuilder = new LightweightModelBuilder(this.modelResolver);
+		Iterator<Map.Entry<ModelInput, RecordingPropertySource>> iterator = modelsToBuild.entrySet().iterator();
+		while (iterator.hasNext()) {
+			Map.Entry<ModelInput, RecordingPropertySource> entry = iterator.next();
+			ModelInput input = entry.getKey();
+			ManagedVersionOverrides overrides = new ManagedVersionOverrides();
+			RecordingModelResolver modelResolver = new RecordingModelResolver(this.modelResolver);
+			try {
+				long start = System.nanoTime();
+				Model model = modelBuilder.withModelResolver(modelResolver)
+					.build(input.pom, entry.getValue(), overrides);
+				this.metrics.get().effectiveModelBuilt(input.pom.getName(), System.nanoTime() - start);
+				EffectiveModel effectiveModel = createEffectiveModel(input, model, entry.getValue(), modelResolver,
+						overrides);
+				models.put(input, effectiveModel);
+				effectiveModelCache.put(input.pom, effectiveModel);
+				iterator.remove();
+			}
+			catch (UnsupportedModelException ex) {
+				logger.debug("Falling back to full model building for {}: {}", input.pom, ex.getMessage());
+				entry.setValue(new RecordingPropertySource(input.properties));
+			}
+		}
+	}
+
+	private EffectiveModel createEffectiveModel(ModelInput input, Model model, RecordingPropertySource properties,
+			RecordingModelResolver modelResolver, ManagedVersionOverrides overrides) {
+		Set<File> poms = new LinkedHashSet<>();
+		poms.add(input.pom);
+		poms.addAll(modelResolver.getPoms());
+		return new EffectiveModel(model, new LinkedHashMap<>(properties.getRecordedProperties()), poms,
+				modelResolver.isChanging(), getOverriddenManagedDependencies(model, overrides));
+	}
+
+	private Set<String> getOverriddenManagedDependencies(Model model, ManagedVersionOverrides overrides) {
+		if (model.getDependencyManagement() == null) {
+			return Collections.emptySet();
+		}
+		Set<String> overriddenManagedDependencies = new LinkedHashSet<>();
+		for (Dependency dependency : model.getDependencyManagement().getDependencies()) {
+			if (overrides.contains(dependency)) {
+				overriddenManagedDependencies.add(dependency.getManagementKey());
+			}
+		}
+		return overriddenManagedDependencies;
+	}
+
+	private Map<ModelInput, ModelBuildingResult> buildModels(Map<ModelInput, RecordingPropertySource> inputs,
+			Map<ModelInput, RecordingModelResolver> modelResolvers,
+			Map<ModelInput, ManagedVersionOverrides> overrides) {
+		Map<ModelInput, ModelBuildingResult> results = new LinkedHashMap<>();
+		inputs.forEach((input, properties) -> {
+			RecordingModelResolver modelResolver = new RecordingModelResolver(this.modelResolver);
+			modelResolvers.put(input, modelResolver);
+			results.put(input,
+					buildModel(input, properties, new InMemoryModelCache(), modelResolver, overrides.get(input)));
+		});
+		return results;
+	}
+
+	private Map<ModelInput, ModelBuildingResult> buildModelsInParallel(Map<ModelInput, RecordingPropertySource> inputs,
+			Map<ModelInput, RecordingModelResolver> modelResolvers,
+			Map<ModelInput, ManagedVersionOverrides> overrides) {
+		CallingThreadModelResolver callingThreadModelResolver = new CallingThreadModelResolver(this.modelResolver);
+		ModelBuilderExecutor executor = this.executor.get();
+		Map<ModelInput, Future<ModelBuildingResult>> futures = new LinkedHashMap<>();
+		try {
+			for (Map.Entry<ModelInput, RecordingPropertySource> entry : inputs.entrySet()) {
+				ModelInput input = entry.getKey();
+				RecordingPropertySource properties = new RecordingPropertySource(
+						callingThreadModelResolver.propertySource(input.properties));
+				entry.setValue(properties);
+				RecordingModelResolver modelResolver = new RecordingModelResolver(callingThreadModelResolver);
+				modelResolvers.put(input, modelResolver);
+				futures.put(input, executor.submit(() -> {
+					try {
+						return buildModel(input, properties, new InMemoryModelCache(), modelResolver,
+								overrides.get(input));
+					}
+					finally {
+						callingThreadModelResolver.taskComplete();
+					}
+				}));
+			}
+			callingThreadModelResolver.processRequests(futures.size());
+			Map<ModelInput, ModelBuildingResult> results = new LinkedHashMap<>();
+			futures.forEach((input, future) -> results.put(input, getResult(future)));
+			return results;
+		}
+		finally {
+			// Stop any builds that are still running if getting a result failed
+			futures.values().forEach((future) -> future.cancel(true));
+		}
+	}
+
+	private ModelBuildingResult getResult(Future<ModelBuildingResult> future) {
+		try {
+			return future.get();
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new GradleException("Interrupted while building effective models", ex);
+		}
+		catch (ExecutionException ex) {
+			Throwable cause = ex.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new GradleException("Failed to build effective model", cause);
+		}
+	}
+
+	private ModelBuildingResult buildModel(ModelInput input, PropertySource properties, InMemoryModelCache cache,
+			ModelResolver modelResolver, ManagedVersionOverrides overrides) {
 		DefaultModelBuildingRequest request = new DefaultModelBuildingRequest();
 		request.setSystemProperties(System.getProperties());
 		request.setModelSource(new FileModelSource(input.pom));
-		request.setModelResolver(this.modelResolver);
+		request.setModelResolver(modelResolver);
 		request.setModelCache(cache);
+		PropertiesModelInterpolator.configure(request, properties, overrides);
+		long start = System.nanoTime();
 		try {
-			ModelBuildingResult result = createModelBuilder(input.properties).build(request);
-			reportErrors(extractErrors(result.getProblems()), input.pom);
-			return result.getEffectiveModel();
+			return modelBuilder.get().build(request);
 		}
 		catch (ModelBuildingException ex) {
 			logger.debug("Model building failed", ex);
-			reportErrors(extractErrors(ex.getProblems()), input.pom);
-			return ex.getResult().getEffectiveModel();
+			return ex.getResult();
+		}
+		finally {
+			this.metrics.get().effectiveModelBuilt(input.pom.getName(), System.nanoTime() - start);
 		}
 	}
 
@@ -105,11 +310,11 @@ final class EffectiveModelBuilder {
 		logger.error(message.toString());
 	}
 
-	private DefaultModelBuilder createModelBuilder(PropertySource properties) {
-		DefaultModelBuilder modelBuilder = new DefaultModelBuilderFactory().newInstance();
-		modelBuilder.setModelInterpolator(new PropertiesModelInterpolator(properties));
-		modelBuilder.setModelValidator(new RelaxedModelValidator());
-		return modelBuilder;
+	private static DefaultModelBuilder createModelBuilder() {
+		DefaultModelBuilder builder = new DefaultModelBuilderFactory().newInstance();
+		builder.setModelInterpolator(new PropertiesModelInterpolator());
+		builder.setModelValidator(new RelaxedModelValidator());
+		return builder;
 	}
 
 	/**
@@ -126,8 +331,124 @@ final class EffectiveModelBuilder {
 			this.properties = properties;
 		}
 
+		File getPom() {
+			return this.pom;
+		}
+
+		PropertySource getProperties() {
+			return this.properties;
+		}
+
+	}
+
+	/**
+	 * An effective model and the inputs that were used to build it.
+	 */
+	static final class EffectiveModel {
+
+		private final Model model;
+
+		private final Map<String, String> properties;
+
+		private final Set<File> poms;
+
+		private final boolean changing;
+
+		private final Set<String> overriddenManagedDependencies;
+
+		private volatile Pom pom;
+
+		private EffectiveModel(Model model) {
+			this(model, Collections.emptyMap(), Collections.emptySet(), false);
+		}
+
+		EffectiveModel(Model model, Map<String, String> properties, Set<File> poms, boolean changing) {
+			this(model, properties, poms, changing, Collections.emptySet());
+		}
+
+		EffectiveModel(Model model, Map<String, String> properties, Set<File> poms, boolean changing,
+				Set<String> overriddenManagedDependencies) {
+			this.model = model;
+			this.properties = properties;
+			this.poms = poms;
+			this.changing = changing;
+			this.overriddenManagedDependencies = overriddenManagedDependencies;
+		}
+
+		/**
+		 * Returns the effective model.
+		 * @return the model
+		 */
+		Model getModel() {
+			return this.model;
+		}
+
+		/**
+		 * Returns the properties, keyed by name, that were read while building the
+		 * model. A property that was read but that was not available has a {@code null}
+		 * value.
+		 * @return the properties
+		 */
+		Map<String, String> getProperties() {
+			return this.properties;
+		}
+
+		/**
+		 * Returns the poms that were used to build the model: the model's own pom and the
+		 * parent and imported poms that were resolved while building it. Empty if the
+		 * model could not be built without errors.
+		 * @return the poms
+		 */
+		Set<File> getPoms() {
+			return this.poms;
+		}
+
+		/**
+		 * Returns whether a parent or imported pom was resolved using a snapshot or
+		 * dynamic version while building the model, such that a later build may resolve
+		 * a different pom.
+		 * @return {@code true} if a pom was resolved using a snapshot or dynamic version,
+		 * otherwise {@code false}
+		 */
+		boolean isChanging() {
+			return this.changing;
+		}
+
+		/**
+		 * Returns the {@link Dependency#getManagementKey() management keys} of the managed
+		 * dependencies whose versions were overridden by the properties that were read
+		 * while building the model.
+		 * @return the management keys of the overridden managed dependencies
+		 */
+		Set<String> getOverriddenManagedDependencies() {
+			return this.overriddenManagedDependencies;
+		}
+
+		/**
+		 * Returns the {@link Pom} for the model, using the given {@code factory} to create
+		 * it if necessary. As effective models are shared by every project in the build,
+		 * so too is the pom.
+		 * @param factory the factory used to create the pom
+		 * @return the pom
+		 */
+		Pom getPom(Function<EffectiveModel, Pom> factory) {
+			Pom pom = this.pom;
+			if (pom == null) {
+				pom = factory.apply(this);
+				this.pom = pom;
+			}
+			return pom;
+		}
+
 	}
 
+	/**
+	 * A {@link ModelCache} for building the model of a single input. It is not shared
+	 * with other inputs. A parent or import that is found in the cache is not resolved
+	 * again so it would not be recorded as one of the other input's poms. Imported
+	 * dependency management is also interpolated using the input's properties, with its
+	 * overridden versions recorded for the input.
+	 */
 	private static final class InMemoryModelCache implements ModelCache {
 
 		private final Map<Key, Object> cache = new ConcurrentHashMap<>();
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2014-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal.maven;
+
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import io.spring.gradle.dependencymanagement.internal.maven.EffectiveModelBuilder.EffectiveModel;
+import io.spring.gradle.dependencymanagement.internal.properties.PropertySource;
+import org.gradle.api.invocation.Gradle;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+
+/**
+ * A build-scoped cache of {@link EffectiveModel effective models}, shared by every
+ * project in the build. A model is cached against the pom from which it was built and the
+ * values of the properties that were read while it was being built. A cached model is
+ * only reused when each of those properties has the same value in the
+ * {@link PropertySource} of the new request.
+ *
+ * @author Andy Wilkinson
+ */
+public abstract class EffectiveModelCache implements BuildService<BuildServiceParameters.None> {
+
+	private final Map<File, List<EffectiveModel>> models = new ConcurrentHashMap<>();
+
+	/**
+	 * Registers the cache with the given {@code gradle} if it has not already been
+	 * registered.
+	 * @param gradle the gradle
+	 * @return a provider of the cache
+	 */
+	public static Provider<EffectiveModelCache> register(Gradle gradle) {
+		String name = EffectiveModelCache.class.getName() + "_"
+				+ System.identityHashCode(EffectiveModelCache.class.getClassLoader());
+		return gradle.getSharedServices().registerIfAbsent(name, EffectiveModelCache.class, (spec) -> {
+		});
+	}
+
+	EffectiveModel get(File pom, PropertySource properties) {
+		List<EffectiveModel> candidates = this.models.get(pom);
+		if (candidates != null) {
+			for (EffectiveModel candidate : candidates) {
+				if (matches(candidate.getProperties(), properties)) {
+					return candidate;
+				}
+			}
+		}
+		return null;
+	}
+
+	void put(File pom, EffectiveModel model) {
+		this.models.computeIfAbsent(pom, (key) -> new CopyOnWriteArrayList<>()).add(model);
+	}
+
+	static boolean matches(Map<String, String> properties, PropertySource propertySource) {
+		for (Map.Entry<String, String> property : properties.entrySet()) {
+			Object value = propertySource.getProperty(property.getKey());
+			if (!Objects.equals(property.getValue(), (value != null) ? value.toString() : null)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+}
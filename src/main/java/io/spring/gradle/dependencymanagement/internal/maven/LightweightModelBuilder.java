@@ -0,0 +1,374 @@
+/*
+ * Copyright 2014-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal.maven;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import io.spring.gradle.dependencymanagement.internal.properties.PropertySource;
+import io.spring.gradle.dependencymanagement.org.apache.maven.model.Dependency;
+import io.spring.gradle.dependencymanagement.org.apache.maven.model.DependencyManagement;
+import io.spring.gradle.dependencymanagement.org.apache.maven.model.Exclusion;
+import io.spring.gradle.dependencymanagement.org.apache.maven.model.Model;
+import io.spring.gradle.dependencymanagement.org.apache.maven.model.Parent;
+import io.spring.gradle.dependencymanagement.org.apache.maven.model.building.FileModelSource;
+import io.spring.gradle.dependencymanagement.org.apache.maven.model.resolution.ModelResolver;
+import io.spring.gradle.dependencymanagement.org.apache.maven.model.resolution.UnresolvableModelException;
+import io.spring.gradle.dependencymanagement.org.codehaus.plexus.interpolation.AbstractValueSource;
+import io.spring.gradle.dependencymanagement.org.codehaus.plexus.interpolation.InterpolationException;
+import io.spring.gradle.dependencymanagement.org.codehaus.plexus.interpolation.PropertiesBasedValueSource;
+import io.spring.gradle.dependencymanagement.org.codehaus.plexus.interpolation.StringSearchInterpolator;
+
+/**
+ * Builds a lightweight effective {@link Model} for a bom without using Maven's model
+ * builder. The bom's pom, and those of its parents and imports, are streamed using a
+ * {@link StaxPomReader}. Only the coordinates, properties, dependency management, and
+ * dependencies are inherited and interpolated, following the same rules as Maven's model
+ * builder. A pom that uses a feature that requires the full model builder, such as
+ * profiles, a local parent, or an expression that cannot be resolved from properties or
+ * the model's coordinates, is rejected with an {@link UnsupportedModelException}.
+ *
+ * @author Andy Wilkinson
+ */
+@SuppressWarnings("deprecation")
+final class LightweightModelBuilder {
+
+	private final ModelResolver modelResolver;
+
+	private final StaxPomReader reader;
+
+	private final Map<String, Model> rawModels;
+
+	/**
+	 * Creates a new {@code LightweightModelBuilder} that will use the given
+	 * {@code modelResolver} to resolve parent and imported poms.
+	 * @param modelResolver the model resolver
+	 */
+	LightweightModelBuilder(ModelResolver modelResolver) {
+		this(modelResolver, new StaxPomReader(), new HashMap<>());
+	}
+
+	private LightweightModelBuilder(ModelResolver modelResolver, StaxPomReader reader, Map<String, Model> rawModels) {
+		this.modelResolver = modelResolver;
+		this.reader = reader;
+		this.rawModels = rawModels;
+	}
+
+	/**
+	 * Returns a builder that uses the given {@code modelResolver} to resolve parent and
+	 * imported poms and that shares the raw models that this builder has read.
+	 * @param modelResolver the model resolver
+	 * @return the builder
+	 */
+	LightweightModelBuilder withModelResolver(ModelResolver modelResolver) {
+		return new LightweightModelBuilder(modelResolver, this.reader, this.rawModels);
+	}
+
+	/**
+	 * Builds the effective model of the given {@code pom}, interpolating it using the
+	 * given {@code properties} and recording any managed versions that they override in
+	 * the given {@code overrides}.
+	 * @param pom the pom
+	 * @param properties the properties
+	 * @param overrides the record of overridden managed versions
+	 * @return the effective model
+	 * @throws UnsupportedModelException if the pom, or one of its parents or imports, uses
+	 * a feature that is not supported
+	 */
+	Model build(File pom, PropertySource properties, ManagedVersionOverrides overrides)
+			throws UnsupportedModelException {
+		return build(new FileModelSource(pom), properties, overrides, new HashSet<>());
+	}
+
+	private Model build(io.spring.gradle.dependencymanagement.org.apache.maven.model.building.ModelSource source,
+			PropertySource properties, ManagedVersionOverrides overrides, Set<String> importIds)
+			throws UnsupportedModelException {
+		Model model = inherit(source);
+		interpolate(model, properties, overrides);
+		importDependencyManagement(model, properties, overrides, importIds);
+		return model;
+	}
+
+	private Model inherit(io.spring.gradle.dependencymanagement.org.apache.maven.model.building.ModelSource source)
+			throws UnsupportedModelException {
+		List<Model> lineage = new ArrayList<>();
+		Set<String> parentIds = new HashSet<>();
+		io.spring.gradle.dependencymanagement.org.apache.maven.model.building.ModelSource current = source;
+		while (current != null) {
+			Model model = readModel(current);
+			lineage.add(model);
+			Parent parent = model.getParent();
+			current = null;
+			if (parent != null) {
+				String parentId = parent.getId();
+				if (parentId.contains("${") || !parentIds.add(parentId)) {
+					throw new UnsupportedModelException("Unsupported parent " + parentId);
+				}
+				current = resolveModel(parent.clone());
+			}
+		}
+		Model effective = lineage.get(lineage.size() - 1);
+		for (int i = lineage.size() - 2; i >= 0; i--) {
+			effective = inherit(lineage.get(i), effective);
+		}
+		return effective;
+	}
+
+	private Model readModel(io.spring.gradle.dependencymanagement.org.apache.maven.model.building.ModelSource source)
+			throws UnsupportedModelException {
+		Model model = this.rawModels.get(source.getLocation());
+		if (model == null) {
+			model = this.reader.read(source);
+			if (source instanceof FileModelSource && model.getParent() != null) {
+				assertNoLocalParent(((FileModelSource) source).getFile(), model.getParent());
+			}
+			this.rawModels.put(source.getLocation(), model);
+		}
+		return model.clone();
+	}
+
+	private void assertNoLocalParent(File pom, Parent parent) throws UnsupportedModelException {
+		String relativePath = parent.getRelativePath();
+		if (relativePath == null || relativePath.isEmpty()) {
+			return;
+		}
+		File candidate = new File(pom.getAbsoluteFile().getParentFile(), relativePath);
+		if (candidate.isDirectory()) {
+			candidate = new File(candidate, "pom.xml");
+		}
+		if (candidate.isFile()) {
+			throw new UnsupportedModelException("Local parent " + candidate + " is not supported");
+		}
+	}
+
+	private io.spring.gradle.dependencymanagement.org.apache.maven.model.building.ModelSource resolveModel(
+			Parent parent) throws UnsupportedModelException {
+		try {
+			return this.modelResolver.resolveModel(parent);
+		}
+		catch (UnresolvableModelException ex) {
+			throw new UnsupportedModelException("Failed to resolve " + parent.getId(), ex);
+		}
+	}
+
+	private Model inherit(Model child, Model parent) {
+		if (child.getGroupId() == null) {
+			child.setGroupId(parent.getGroupId());
+		}
+		if (child.getVersion() == null) {
+			child.setVersion(parent.getVersion());
+		}
+		Properties properties = new Properties();
+		properties.putAll(parent.getProperties());
+		properties.putAll(child.getProperties());
+		child.setProperties(properties);
+		if (parent.getDependencyManagement() != null) {
+			if (child.getDependencyManagement() == null) {
+				child.setDependencyManagement(new DependencyManagement());
+			}
+			child.getDependencyManagement()
+				.setDependencies(merge(child.getDependencyManagement().getDependencies(),
+						parent.getDependencyManagement().getDependencies()));
+		}
+		child.setDependencies(merge(child.getDependencies(), parent.getDependencies()));
+		return child;
+	}
+
+	private List<Dependency> merge(List<Dependency> dominant, List<Dependency> recessive) {
+		if (recessive.isEmpty()) {
+			return dominant;
+		}
+		Map<String, Dependency> merged = new LinkedHashMap<>();
+		for (Dependency dependency : dominant) {
+			merged.put(dependency.getManagementKey(), dependency);
+		}
+		for (Dependency dependency : recessive) {
+			merged.putIfAbsent(dependency.getManagementKey(), dependency);
+		}
+		return new ArrayList<>(merged.values());
+	}
+
+	private void interpolate(Model model, PropertySource properties, ManagedVersionOverrides overrides)
+			throws UnsupportedModelException {
+		Properties modelProperties = new Properties();
+		modelProperties.putAll(model.getProperties());
+		ModelCoordinatesValueSource coordinates = new ModelCoordinatesValueSource(model);
+		StringSearchInterpolator interpolator = new StringSearchInterpolator();
+		interpolator.addValueSource(new PropertySourceValueSource(properties));
+		interpolator.addValueSource(new PropertiesBasedValueSource(System.getProperties()));
+		interpolator.addValueSource(coordinates);
+		interpolator.addValueSource(new PropertiesBasedValueSource(modelProperties));
+		StringSearchInterpolator defaultInterpolator = new StringSearchInterpolator();
+		defaultInterpolator.addValueSource(new PropertiesBasedValueSource(System.getProperties()));
+		defaultInterpolator.addValueSource(coordinates);
+		defaultInterpolator.addValueSource(new PropertiesBasedValueSource(modelProperties));
+		// Interpolation happens in place so the dependencies are identified by identity
+		Map<Dependency, String> defaultVersions = new IdentityHashMap<>();
+		if (model.getDependencyManagement() != null) {
+			for (Dependency dependency : model.getDependencyManagement().getDependencies()) {
+				String version = dependency.getVersion();
+				if (version != null && version.contains("${")) {
+					defaultVersions.put(dependency, interpolate(defaultInterpolator, version));
+				}
+			}
+		}
+		model.setGroupId(interpolate(interpolator, model.getGroupId()));
+		model.setArtifactId(interpolate(interpolator, model.getArtifactId()));
+		model.setVersion(interpolate(interpolator, model.getVersion()));
+		for (String name : model.getProperties().stringPropertyNames()) {
+			model.getProperties().setProperty(name, interpolate(interpolator, model.getProperties().getProperty(name)));
+		}
+		for (Dependency dependency : model.getDependencies()) {
+			interpolate(interpolator, dependency);
+		}
+		if (model.getDependencyManagement() != null) {
+			boolean overriddenImport = overrides.isOverriddenImport(model);
+			for (Dependency dependency : model.getDependencyManagement().getDependencies()) {
+				String defaultVersion = defaultVersions.get(dependency);
+				interpolate(interpolator, dependency);
+				if (overriddenImport || (defaultVersion != null && !defaultVersion.equals(dependency.getVersion()))) {
+					overrides.add(dependency);
+				}
+			}
+		}
+	}
+
+	private void interpolate(StringSearchInterpolator interpolator, Dependency dependency)
+			throws UnsupportedModelException {
+		dependency.setGroupId(interpolate(interpolator, dependency.getGroupId()));
+		dependency.setArtifactId(interpolate(interpolator, dependency.getArtifactId()));
+		dependency.setVersion(interpolate(interpolator, dependency.getVersion()));
+		dependency.setType(interpolate(interpolator, dependency.getType()));
+		dependency.setClassifier(interpolate(interpolator, dependency.getClassifier()));
+		dependency.setScope(interpolate(interpolator, dependency.getScope()));
+		dependency.setOptional(interpolate(interpolator, dependency.getOptional()));
+		for (Exclusion exclusion : dependency.getExclusions()) {
+			exclusion.setGroupId(interpolate(interpolator, exclusion.getGroupId()));
+			exclusion.setArtifactId(interpolate(interpolator, exclusion.getArtifactId()));
+		}
+	}
+
+	private String interpolate(StringSearchInterpolator interpolator, String value) throws UnsupportedModelException {
+		if (value == null || !value.contains("${")) {
+			return value;
+		}
+		try {
+			String interpolated = interpolator.interpolate(value);
+			if (interpolated.contains("${")) {
+				throw new UnsupportedModelException("Unsupported expression in '" + value + "'");
+			}
+			return interpolated;
+		}
+		catch (InterpolationException ex) {
+			throw new UnsupportedModelException("Failed to interpolate '" + value + "'", ex);
+		}
+	}
+
+	private void importDependencyManagement(Model model, PropertySource properties,
+			ManagedVersionOverrides overrides, Set<String> importIds) throws UnsupportedModelException {
+		DependencyManagement dependencyManagement = model.getDependencyManagement();
+		if (dependencyManagement == null) {
+			return;
+		}
+		List<Model> imports = new ArrayList<>();
+		for (Iterator<Dependency> iterator = dependencyManagement.getDependencies().iterator(); iterator.hasNext();) {
+			Dependency dependency = iterator.next();
+			if ("pom".equals(dependency.getType()) && "import".equals(dependency.getScope())) {
+				iterator.remove();
+				imports.add(importModel(dependency, properties, overrides, importIds));
+			}
+		}
+		if (imports.isEmpty()) {
+			return;
+		}
+		Map<String, Dependency> dependencies = new LinkedHashMap<>();
+		for (Dependency dependency : dependencyManagement.getDependencies()) {
+			dependencies.put(dependency.getManagementKey(), dependency);
+		}
+		for (Model imported : imports) {
+			if (imported.getDependencyManagement() != null) {
+				for (Dependency dependency : imported.getDependencyManagement().getDependencies()) {
+					dependencies.putIfAbsent(dependency.getManagementKey(), dependency);
+				}
+			}
+		}
+		dependencyManagement.setDependencies(new ArrayList<>(dependencies.values()));
+	}
+
+	private Model importModel(Dependency dependency, PropertySource properties, ManagedVersionOverrides overrides,
+			Set<String> importIds) throws UnsupportedModelException {
+		String importId = dependency.getGroupId() + ":" + dependency.getArtifactId() + ":" + dependency.getVersion();
+		if (dependency.getGroupId() == null || dependency.getArtifactId() == null || dependency.getVersion() == null
+				|| !importIds.add(importId)) {
+			throw new UnsupportedModelException("Unsupported import " + importId);
+		}
+		try {
+			return build(this.modelResolver.resolveModel(dependency.getGroupId(), dependency.getArtifactId(),
+					dependency.getVersion()), properties, overrides, importIds);
+		}
+		catch (UnresolvableModelException ex) {
+			throw new UnsupportedModelException("Failed to resolve import " + importId, ex);
+		}
+		finally {
+			importIds.remove(importId);
+		}
+	}
+
+	/**
+	 * A value source for the {@code project.} and {@code pom.} prefixed expressions that
+	 * refer to a model's coordinates and those of its parent.
+	 */
+	private static final class ModelCoordinatesValueSource extends AbstractValueSource {
+
+		private final Map<String, String> values = new HashMap<>();
+
+		private ModelCoordinatesValueSource(Model model) {
+			super(false);
+			put("groupId", model.getGroupId());
+			put("artifactId", model.getArtifactId());
+			put("version", model.getVersion());
+			if (model.getParent() != null) {
+				put("parent.groupId", model.getParent().getGroupId());
+				put("parent.artifactId", model.getParent().getArtifactId());
+				put("parent.version", model.getParent().getVersion());
+			}
+		}
+
+		private void put(String name, String value) {
+			if (value != null) {
+				this.values.put("project." + name, value);
+				this.values.put("pom." + name, value);
+			}
+		}
+
+		@Override
+		public Object getValue(String expression) {
+			return this.values.get(expression);
+		}
+
+	}
+
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2014-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal.maven;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.spring.gradle.dependencymanagement.org.apache.maven.model.Dependency;
+import io.spring.gradle.dependencymanagement.org.apache.maven.model.Model;
+
+/**
+ * A thread-safe record of the managed dependencies whose versions were overridden by
+ * properties while building one or more effective models. When the version of an
+ * imported bom is overridden, every dependency managed by that bom is also considered to
+ * have been overridden.
+ *
+ * @author Andy Wilkinson
+ */
+final class ManagedVersionOverrides {
+
+	private final Set<String> managedVersions = ConcurrentHashMap.newKeySet();
+
+	private final Set<String> imports = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * Records that the version of the given interpolated managed {@code dependency} was
+	 * overridden.
+	 * @param dependency the managed dependency
+	 */
+	void add(Dependency dependency) {
+		this.managedVersions.add(key(dependency));
+		if ("import".equals(dependency.getScope()) && "pom".equals(dependency.getType())) {
+			this.imports
+				.add(dependency.getGroupId() + ":" + dependency.getArtifactId() + ":" + dependency.getVersion());
+		}
+	}
+
+	/**
+	 * Returns whether the version of the given interpolated managed {@code dependency}
+	 * was overridden.
+	 * @param dependency the managed dependency
+	 * @return {@code true} if the version was overridden, otherwise {@code false}
+	 */
+	boolean contains(Dependency dependency) {
+		return !this.managedVersions.isEmpty() && this.managedVersions.contains(key(dependency));
+	}
+
+	/**
+	 * Returns whether the given interpolated {@code model} is being imported as the
+	 * result of an overridden version.
+	 * @param model the model
+	 * @return {@code true} if the model's import was overridden, otherwise {@code false}
+	 */
+	boolean isOverriddenImport(Model model) {
+		if (this.imports.isEmpty()) {
+			return false;
+		}
+		String groupId = (model.getGroupId() != null || model.getParent() == null) ? model.getGroupId()
+				: model.getParent().getGroupId();
+		String version = (model.getVersion() != null || model.getParent() == null) ? model.getVersion()
+				: model.getParent().getVersion();
+		return this.imports.contains(groupId + ":" + model.getArtifactId() + ":" + version);
+	}
+
+	private String key(Dependency dependency) {
+		return dependency.getManagementKey() + ":" + dependency.getVersion();
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2022 the original author or authors.
+ * Copyright 2014-2024 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -29,7 +29,10 @@ import java.util.Set;
 import java.util.stream.Collectors;
 
 import io.spring.gradle.dependencymanagement.internal.DependencyManagementConfigurationContainer;
+import io.spring.gradle.dependencymanagement.internal.DependencyManagementMetrics;
+import io.spring.gradle.dependencymanagement.internal.DependencyManagementSettings;
 import io.spring.gradle.dependencymanagement.internal.Exclusion;
+import io.spring.gradle.dependencymanagement.internal.maven.EffectiveModelBuilder.EffectiveModel;
 import io.spring.gradle.dependencymanagement.internal.maven.EffectiveModelBuilder.ModelInput;
 import io.spring.gradle.dependencymanagement.internal.pom.Coordinates;
 import io.spring.gradle.dependencymanagement.internal.pom.Dependency;
@@ -46,6 +49,7 @@ import org.gradle.api.artifacts.ModuleVersionIdentifier;
 import org.gradle.api.artifacts.ResolvedArtifact;
 import org.gradle.api.artifacts.ResolvedConfiguration;
 import org.gradle.api.artifacts.dsl.DependencyHandler;
+import org.gradle.api.provider.Provider;
 
 /**
  * A {@link PomResolver} that uses the jarjared Maven API to access the pom's model.
@@ -60,6 +64,12 @@ public class MavenPomResolver implements PomResolver {
 
 	private final DependencyHandler dependencyHandler;
 
+	private final DependencyManagementSettings dependencyManagementSettings;
+
+	private final Provider<PersistentPomCaches> persistentCaches;
+
+	private final Provider<DependencyManagementMetrics> metrics;
+
 	/**
 	 * Creates a new {@code MavenPomResolver}. Properties from the given {@code project}
 	 * will be used during resolution. The given {@code configurationContainer} will be
@@ -68,16 +78,37 @@ public class MavenPomResolver implements PomResolver {
 	 * @param configurationContainer the configuration container
 	 */
 	public MavenPomResolver(Project project, DependencyManagementConfigurationContainer configurationContainer) {
+		this(project, configurationContainer, new DependencyManagementSettings());
+	}
+
+	/**
+	 * Creates a new {@code MavenPomResolver}. Properties from the given {@code project}
+	 * will be used during resolution. The given {@code configurationContainer} will be
+	 * used to create configurations to resolve the poms. The given
+	 * {@code dependencyManagementSettings} control whether resolved poms are cached on
+	 * disk.
+	 * @param project the project
+	 * @param configurationContainer the configuration container
+	 * @param dependencyManagementSettings the dependency management settings
+	 */
+	public MavenPomResolver(Project project, DependencyManagementConfigurationContainer configurationContainer,
+			DependencyManagementSettings dependencyManagementSettings) {
 		this.configurationContainer = configurationContainer;
-		this.effectiveModelBuilder = new EffectiveModelBuilder(project, configurationContainer);
+		this.metrics = DependencyManagementMetrics.register(project);
+		this.effectiveModelBuilder = new EffectiveModelBuilder(project, configurationContainer,
+				EffectiveModelCache.register(project.getGradle()), this.metrics);
 		this.dependencyHandler = project.getDependencies();
+		this.dependencyManagementSettings = dependencyManagementSettings;
+		this.persistentCaches = PersistentPomCaches.register(project.getGradle());
 	}
 
 	@Override
 	public List<Pom> resolvePomsLeniently(List<PomReference> pomReferences) {
+		PersistentPomCache persistentCache = this.dependencyManagementSettings.isCachePomExclusions()
+				? this.persistentCaches.get().getPomExclusions() : null;
 		return createPoms(
 				createConfiguration(pomReferences).getResolvedConfiguration().getLenientConfiguration().getArtifacts(),
-				pomReferences, new MapPropertySource(Collections.emptyMap()));
+				pomReferences, new MapPropertySource(Collections.emptyMap()), persistentCache, false, false);
 	}
 
 	@Override
@@ -85,7 +116,11 @@ public class MavenPomResolver implements PomResolver {
 		List<PomReference> deduplicatedPomReferences = deduplicate(pomReferences);
 		Configuration configuration = createConfiguration(deduplicatedPomReferences);
 		ResolvedConfiguration resolvedConfiguration = configuration.getResolvedConfiguration();
-		return createPoms(resolvedConfiguration.getResolvedArtifacts(), deduplicatedPomReferences, properties);
+		PersistentPomCache persistentCache = this.dependencyManagementSettings.isCacheResolvedBoms()
+				? this.persistentCaches.get().getBoms() : null;
+		return createPoms(resolvedConfiguration.getResolvedArtifacts(), deduplicatedPomReferences, properties,
+				persistentCache, this.dependencyManagementSettings.isResolveBomsInParallel(),
+				this.dependencyManagementSettings.isLightweightBomResolution());
 	}
 
 	private List<PomReference> deduplicate(List<PomReference> pomReferences) {
@@ -113,7 +148,7 @@ public class MavenPomResolver implements PomResolver {
 	}
 
 	private List<Pom> createPoms(Set<ResolvedArtifact> resolvedArtifacts, List<PomReference> pomReferences,
-			PropertySource properties) {
+			PropertySource properties, PersistentPomCache persistentCache, boolean parallel, boolean lightweight) {
 		Map<String, PomReference> referencesById = new HashMap<>();
 		for (PomReference pomReference : pomReferences) {
 			referencesById.put(pomReference.getCoordinates().getGroupAndArtifactId(), pomReference);
@@ -125,21 +160,50 @@ public class MavenPomResolver implements PomResolver {
 			CompositePropertySource allProperties = new CompositePropertySource(reference.getProperties(), properties);
 			modelInputs.add(new ModelInput(resolvedArtifact.getFile(), allProperties));
 		}
-		return createPoms(modelInputs);
+		return createPoms(modelInputs, persistentCache, parallel, lightweight);
 	}
 
-	private List<Pom> createPoms(List<ModelInput> inputs) {
-		List<Model> effectiveModels = this.effectiveModelBuilder.buildModels(inputs);
-		List<Pom> poms = new ArrayList<>(effectiveModels.size());
-		for (Model effectiveModel : effectiveModels) {
-			Coordinates coordinates = new Coordinates(effectiveModel.getGroupId(), effectiveModel.getArtifactId(),
-					effectiveModel.getVersion());
-			List<Dependency> managedDependencies = getManagedDependencies(effectiveModel);
-			List<Dependency> dependencies = getDependencies(effectiveModel);
-			Map<String, String> properties = asMap(effectiveModel.getProperties());
-			poms.add(new Pom(coordinates, managedDependencies, dependencies, properties));
+	private List<Pom> createPoms(List<ModelInput> inputs, PersistentPomCache persistentCache, boolean parallel,
+			boolean lightweight) {
+		Map<ModelInput, Pom> poms = new LinkedHashMap<>();
+		List<ModelInput> modelsToBuild = new ArrayList<>();
+		for (ModelInput input : inputs) {
+			EffectiveModel cachedModel = this.effectiveModelBuilder.getCachedModel(input);
+			Pom pom = (cachedModel != null) ? cachedModel.getPom(this::createPom) : null;
+			if (pom == null && persistentCache != null) {
+				pom = persistentCache.get(input.getPom(), input.getProperties());
+				this.metrics.get()
+					.cacheLookup((persistentCache == this.persistentCaches.get().getBoms()) ? "persistentBoms"
+							: "persistentPomExclusions", pom != null);
+			}
+			poms.put(input, pom);
+			if (pom == null) {
+				modelsToBuild.add(input);
+			}
+		}
+		if (!modelsToBuild.isEmpty()) {
+			Map<ModelInput, EffectiveModel> effectiveModels = this.effectiveModelBuilder.buildModels(modelsToBuild,
+					parallel, lightweight);
+			for (Map.Entry<ModelInput, EffectiveModel> entry : effectiveModels.entrySet()) {
+				Pom pom = entry.getValue().getPom(this::createPom);
+				poms.put(entry.getKey(), pom);
+				if (persistentCache != null && !entry.getValue().getPoms().isEmpty()) {
+					persistentCache.put(entry.getKey().getPom(), entry.getValue(), pom);
+				}
+			}
 		}
-		return poms;
+		return poms.values().stream().filter((pom) -> pom != null).collect(Collectors.toList());
+	}
+
+	private Pom createPom(EffectiveModel effectiveModel) {
+		Model model = effectiveModel.getModel();
+		Coordinates coordinates = new Coordinates(model.getGroupId(), model.getArtifactId(), model.getVersion());
+		List<Dependency> managedDependencies = getManagedDependencies(model);
+		List<Dependency> overriddenManagedDependencies = getOverriddenManagedDependencies(effectiveModel,
+				managedDependencies);
+		List<Dependency> dependencies = getDependencies(model);
+		Map<String, String> properties = asMap(model.getProperties());
+		return new Pom(coordinates, managedDependencies, dependencies, properties, overriddenManagedDependencies);
 	}
 
 	private List<Dependency> getManagedDependencies(Model model) {
@@ -153,6 +217,26 @@ public class MavenPomResolver implements PomResolver {
 			.collect(Collectors.toList());
 	}
 
+	private List<Dependency> getOverriddenManagedDependencies(EffectiveModel effectiveModel,
+			List<Dependency> managedDependencies) {
+		Set<String> overriddenManagementKeys = effectiveModel.getOverriddenManagedDependencies();
+		if (overriddenManagementKeys.isEmpty()) {
+			return Collections.emptyList();
+		}
+		List<Dependency> overriddenManagedDependencies = new ArrayList<>();
+		for (int i = 0; i < managedDependencies.size(); i++) {
+			String managementKey = effectiveModel.getModel()
+				.getDependencyManagement()
+				.getDependencies()
+				.get(i)
+				.getManagementKey();
+			if (overriddenManagementKeys.contains(managementKey)) {
+				overriddenManagedDependencies.add(managedDependencies.get(i));
+			}
+		}
+		return overriddenManagedDependencies;
+	}
+
 	private Dependency createDependency(
 			io.spring.gradle.dependencymanagement.org.apache.maven.model.Dependency dependency) {
 		Set<Exclusion> exclusions = new LinkedHashSet<>();
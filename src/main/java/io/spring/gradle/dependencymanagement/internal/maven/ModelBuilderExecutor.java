@@ -0,0 +1,112 @@
+/*
+ * Copyright 2014-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal.maven;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.gradle.api.invocation.Gradle;
+import org.gradle.api.provider.Property;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+
+/**
+ * A build-scoped executor for building effective models in parallel, shared by every
+ * project in the build. It uses at most Gradle's maximum number of workers and its
+ * threads are stopped when they are idle and when the build finishes.
+ *
+ * @author Andy Wilkinson
+ */
+public abstract class ModelBuilderExecutor implements BuildService<ModelBuilderExecutor.Parameters>, AutoCloseable {
+
+	private static final long KEEP_ALIVE_SECONDS = 60;
+
+	private final ThreadPoolExecutor executor;
+
+	/**
+	 * Creates a new {@code ModelBuilderExecutor} that uses up to the configured maximum
+	 * number of workers.
+	 */
+	public ModelBuilderExecutor() {
+		int maxWorkers = getMaxWorkers();
+		this.executor = new ThreadPoolExecutor(maxWorkers, maxWorkers, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(), new ModelBuilderThreadFactory());
+		this.executor.allowCoreThreadTimeOut(true);
+	}
+
+	/**
+	 * Registers the executor with the given {@code gradle} if it has not already been
+	 * registered.
+	 * @param gradle the gradle
+	 * @return a provider of the executor
+	 */
+	public static Provider<ModelBuilderExecutor> register(Gradle gradle) {
+		String name = ModelBuilderExecutor.class.getName() + "_"
+				+ System.identityHashCode(ModelBuilderExecutor.class.getClassLoader());
+		int maxWorkers = gradle.getStartParameter().getMaxWorkerCount();
+		return gradle.getSharedServices()
+			.registerIfAbsent(name, ModelBuilderExecutor.class,
+					(spec) -> spec.getParameters().getMaxWorkers().set(maxWorkers));
+	}
+
+	int getMaxWorkers() {
+		return Math.max(1, getParameters().getMaxWorkers().get());
+	}
+
+	<T> Future<T> submit(Callable<T> task) {
+		return this.executor.submit(task);
+	}
+
+	@Override
+	public void close() {
+		this.executor.shutdownNow();
+	}
+
+	/**
+	 * Parameters for the executor.
+	 */
+	public interface Parameters extends BuildServiceParameters {
+
+		/**
+		 * Returns the maximum number of workers that the executor will use.
+		 * @return the maximum number of workers
+		 */
+		Property<Integer> getMaxWorkers();
+
+	}
+
+	private static final class ModelBuilderThreadFactory implements ThreadFactory {
+
+		private final AtomicInteger threadCount = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable,
+					"dependency-management-model-builder-" + this.threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+
+	}
+
+}
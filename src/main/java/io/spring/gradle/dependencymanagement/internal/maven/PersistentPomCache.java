@@ -0,0 +1,371 @@
+/*
+ * Copyright 2014-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal.maven;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+import io.spring.gradle.dependencymanagement.internal.Exclusion;
+import io.spring.gradle.dependencymanagement.internal.maven.EffectiveModelBuilder.EffectiveModel;
+import io.spring.gradle.dependencymanagement.internal.pom.Coordinates;
+import io.spring.gradle.dependencymanagement.internal.pom.Dependency;
+import io.spring.gradle.dependencymanagement.internal.pom.Pom;
+import io.spring.gradle.dependencymanagement.internal.properties.PropertySource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A cache of {@link Pom Poms} that is persisted to disk so that it can be used across
+ * builds. An entry is keyed by the SHA-256 of the pom from which it was created. Each
+ * entry records the properties that were read while building the pom's effective model
+ * and the SHA-256 of every parent and imported pom that was resolved while doing so. An
+ * entry is only used when all of those properties have the same values and all of those
+ * poms are unchanged. Poms that involve a snapshot, or a parent or import with a dynamic
+ * version such as a range, are not cached as a later build may resolve a different pom
+ * without the hash of any recorded pom changing. A file that cannot be read is treated as
+ * a miss and deleted. The entries that have been read from or written to disk are also
+ * held in memory so that a cache that is shared by every project in a build reads each
+ * file at most once and returns the same {@code Pom} instances to every project.
+ *
+ * @author Andy Wilkinson
+ */
+final class PersistentPomCache {
+
+	private static final Logger logger = LoggerFactory.getLogger(PersistentPomCache.class);
+
+	private static final int FORMAT_VERSION = 2;
+
+	private static final int MAXIMUM_ENTRIES_PER_POM = 8;
+
+	private final File directory;
+
+	private final UnaryOperator<Pom> storedForm;
+
+	private final Map<File, String> hashes = new ConcurrentHashMap<>();
+
+	private final Map<File, List<Entry>> entries = new ConcurrentHashMap<>();
+
+	PersistentPomCache(File directory) {
+		this(directory, UnaryOperator.identity());
+	}
+
+	/**
+	 * Creates a new {@code PersistentPomCache} that will store poms in the given
+	 * {@code directory} in the form produced by the given {@code storedForm} function.
+	 * @param directory the directory
+	 * @param storedForm the function applied to each pom before it is stored
+	 */
+	PersistentPomCache(File directory, UnaryOperator<Pom> storedForm) {
+		this.directory = directory;
+		this.storedForm = storedForm;
+	}
+
+	Pom get(File pom, PropertySource properties) {
+		File cacheFile = cacheFile(pom);
+		if (cacheFile == null) {
+			return null;
+		}
+		for (Entry entry : this.entries.computeIfAbsent(cacheFile, this::read)) {
+			if (EffectiveModelCache.matches(entry.properties, properties) && unchanged(entry.poms)) {
+				logger.debug("Using cached pom for {}", pom);
+				return entry.pom;
+			}
+		}
+		return null;
+	}
+
+	void put(File pom, EffectiveModel effectiveModel, Pom result) {
+		if (effectiveModel.isChanging() || isSnapshot(result.getCoordinates())) {
+			return;
+		}
+		File cacheFile = cacheFile(pom);
+		if (cacheFile == null) {
+			return;
+		}
+		Map<String, String> poms = new LinkedHashMap<>();
+		for (File resolvedPom : effectiveModel.getPoms()) {
+			String hash = hash(resolvedPom);
+			if (hash == null) {
+				return;
+			}
+			poms.put(resolvedPom.getAbsolutePath(), hash);
+		}
+		List<Entry> entries = new ArrayList<>();
+		entries.add(new Entry(effectiveModel.getProperties(), poms, this.storedForm.apply(result)));
+		for (Entry existing : this.entries.computeIfAbsent(cacheFile, this::read)) {
+			if (entries.size() < MAXIMUM_ENTRIES_PER_POM
+					&& !existing.properties.equals(effectiveModel.getProperties())) {
+				entries.add(existing);
+			}
+		}
+		write(cacheFile, entries);
+		this.entries.put(cacheFile, entries);
+	}
+
+	private boolean isSnapshot(Coordinates coordinates) {
+		return coordinates.getVersion() != null && coordinates.getVersion().endsWith("-SNAPSHOT");
+	}
+
+	private boolean unchanged(Map<String, String> poms) {
+		for (Map.Entry<String, String> pom : poms.entrySet()) {
+			File file = new File(pom.getKey());
+			if (!file.isFile() || !pom.getValue().equals(hash(file))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private File cacheFile(File pom) {
+		String hash = hash(pom);
+		return (hash != null) ? new File(this.directory, hash + ".bin") : null;
+	}
+
+	private String hash(File file) {
+		return this.hashes.computeIfAbsent(file, this::computeHash);
+	}
+
+	private String computeHash(File file) {
+		try (InputStream input = new FileInputStream(file)) {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			byte[] buffer = new byte[8192];
+			int read;
+			while ((read = input.read(buffer)) != -1) {
+				digest.update(buffer, 0, read);
+			}
+			StringBuilder hash = new StringBuilder();
+			for (byte b : digest.digest()) {
+				hash.append(String.format("%02x", b));
+			}
+			return hash.toString();
+		}
+		catch (IOException | NoSuchAlgorithmException ex) {
+			logger.debug("Failed to hash {}", file, ex);
+			return null;
+		}
+	}
+
+	private List<Entry> read(File cacheFile) {
+		List<Entry> entries = new ArrayList<>();
+		if (!cacheFile.isFile()) {
+			return entries;
+		}
+		try (DataInputStream input = new DataInputStream(
+				new BufferedInputStream(new FileInputStream(cacheFile)))) {
+			if (input.readInt() != FORMAT_VERSION) {
+				return entries;
+			}
+			int count = input.readInt();
+			for (int i = 0; i < count; i++) {
+				Map<String, String> properties = readMap(input);
+				Map<String, String> poms = readMap(input);
+				entries.add(new Entry(properties, poms, readPom(input)));
+			}
+		}
+		catch (IOException | RuntimeException ex) {
+			logger.debug("Failed to read cached poms from {}", cacheFile, ex);
+			entries.clear();
+			delete(cacheFile);
+		}
+		return entries;
+	}
+
+	private void delete(File cacheFile) {
+		try {
+			Files.deleteIfExists(cacheFile.toPath());
+		}
+		catch (IOException ex) {
+			logger.debug("Failed to delete {}", cacheFile, ex);
+		}
+	}
+
+	private Pom readPom(DataInputStream input) throws IOException {
+		Coordinates coordinates = readCoordinates(input);
+		List<Dependency> managedDependencies = readDependencies(input);
+		int overriddenCount = input.readInt();
+		List<Dependency> overriddenManagedDependencies = new ArrayList<>();
+		for (int i = 0; i < overriddenCount; i++) {
+			overriddenManagedDependencies.add(managedDependencies.get(input.readInt()));
+		}
+		List<Dependency> dependencies = readDependencies(input);
+		Map<String, String> properties = readMap(input);
+		return new Pom(coordinates, managedDependencies, dependencies, properties, overriddenManagedDependencies);
+	}
+
+	private Coordinates readCoordinates(DataInputStream input) throws IOException {
+		return new Coordinates(readString(input), readString(input), readString(input));
+	}
+
+	private List<Dependency> readDependencies(DataInputStream input) throws IOException {
+		int count = input.readInt();
+		List<Dependency> dependencies = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			Coordinates coordinates = readCoordinates(input);
+			boolean optional = input.readBoolean();
+			String type = readString(input);
+			String classifier = readString(input);
+			String scope = readString(input);
+			int exclusionCount = input.readInt();
+			Set<Exclusion> exclusions = new LinkedHashSet<>();
+			for (int j = 0; j < exclusionCount; j++) {
+				exclusions.add(new Exclusion(readString(input), readString(input)));
+			}
+			dependencies.add(new Dependency(coordinates, optional, type, classifier, scope, exclusions));
+		}
+		return dependencies;
+	}
+
+	private Map<String, String> readMap(DataInputStream input) throws IOException {
+		int count = input.readInt();
+		Map<String, String> map = new LinkedHashMap<>();
+		for (int i = 0; i < count; i++) {
+			map.put(readString(input), readString(input));
+		}
+		return map;
+	}
+
+	private String readString(DataInputStream input) throws IOException {
+		// Interned as the same boms are read from the cache by many projects
+		return input.readBoolean() ? input.readUTF().intern() : null;
+	}
+
+	private void write(File cacheFile, List<Entry> entries) {
+		try {
+			Files.createDirectories(this.directory.toPath());
+			File temp = File.createTempFile(cacheFile.getName(), ".tmp", this.directory);
+			try (DataOutputStream output = new DataOutputStream(
+					new BufferedOutputStream(new FileOutputStream(temp)))) {
+				output.writeInt(FORMAT_VERSION);
+				output.writeInt(entries.size());
+				for (Entry entry : entries) {
+					writeMap(output, entry.properties);
+					writeMap(output, entry.poms);
+					writePom(output, entry.pom);
+				}
+			}
+			move(temp, cacheFile);
+		}
+		catch (IOException ex) {
+			logger.debug("Failed to write cached poms to {}", cacheFile, ex);
+		}
+	}
+
+	private void move(File source, File target) throws IOException {
+		try {
+			Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (AtomicMoveNotSupportedException ex) {
+			Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	private void writePom(DataOutputStream output, Pom pom) throws IOException {
+		writeCoordinates(output, pom.getCoordinates());
+		writeDependencies(output, pom.getManagedDependencies());
+		output.writeInt(pom.getOverriddenManagedDependencies().size());
+		for (Dependency overridden : pom.getOverriddenManagedDependencies()) {
+			output.writeInt(indexOf(overridden, pom.getManagedDependencies()));
+		}
+		writeDependencies(output, pom.getDependencies());
+		writeMap(output, pom.getProperties());
+	}
+
+	private int indexOf(Dependency dependency, List<Dependency> dependencies) {
+		for (int i = 0; i < dependencies.size(); i++) {
+			if (dependencies.get(i) == dependency) {
+				return i;
+			}
+		}
+		throw new IllegalStateException("Overridden managed dependency " + dependency.getCoordinates()
+				+ " is not one of the pom's managed dependencies");
+	}
+
+	private void writeCoordinates(DataOutputStream output, Coordinates coordinates) throws IOException {
+		writeString(output, coordinates.getGroupId());
+		writeString(output, coordinates.getArtifactId());
+		writeString(output, coordinates.getVersion());
+	}
+
+	private void writeDependencies(DataOutputStream output, List<Dependency> dependencies) throws IOException {
+		output.writeInt(dependencies.size());
+		for (Dependency dependency : dependencies) {
+			writeCoordinates(output, dependency.getCoordinates());
+			output.writeBoolean(dependency.isOptional());
+			writeString(output, dependency.getType());
+			writeString(output, dependency.getClassifier());
+			writeString(output, dependency.getScope());
+			output.writeInt(dependency.getExclusions().size());
+			for (Exclusion exclusion : dependency.getExclusions()) {
+				writeString(output, exclusion.getGroupId());
+				writeString(output, exclusion.getArtifactId());
+			}
+		}
+	}
+
+	private void writeMap(DataOutputStream output, Map<String, String> map) throws IOException {
+		output.writeInt(map.size());
+		for (Map.Entry<String, String> entry : map.entrySet()) {
+			writeString(output, entry.getKey());
+			writeString(output, entry.getValue());
+		}
+	}
+
+	private void writeString(DataOutputStream output, String string) throws IOException {
+		output.writeBoolean(string != null);
+		if (string != null) {
+			output.writeUTF(string);
+		}
+	}
+
+	private static final class Entry {
+
+		private final Map<String, String> properties;
+
+		private final Map<String, String> poms;
+
+		private final Pom pom;
+
+		private Entry(Map<String, String> properties, Map<String, String> poms, Pom pom) {
+			this.properties = properties;
+			this.poms = poms;
+			this.pom = pom;
+		}
+
+	}
+
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2014-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal.maven;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import io.spring.gradle.dependencymanagement.internal.pom.Dependency;
+import io.spring.gradle.dependencymanagement.internal.pom.Pom;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.invocation.Gradle;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+
+/**
+ * The build-scoped {@link PersistentPomCache persistent pom caches}, shared by every
+ * project in the build so that each cache file is read from disk and each pom is hashed
+ * at most once per build.
+ *
+ * @author Andy Wilkinson
+ */
+public abstract class PersistentPomCaches implements BuildService<PersistentPomCaches.Parameters> {
+
+	private final PersistentPomCache boms;
+
+	private final PersistentPomCache pomExclusions;
+
+	/**
+	 * Creates a new {@code PersistentPomCaches} that store their poms beneath the
+	 * configured directory.
+	 */
+	public PersistentPomCaches() {
+		File directory = getParameters().getDirectory().get().getAsFile();
+		this.boms = new PersistentPomCache(new File(directory, "poms-1"));
+		this.pomExclusions = new PersistentPomCache(new File(directory, "pom-exclusions-1"),
+				PersistentPomCaches::withExclusionsOnly);
+	}
+
+	/**
+	 * Registers the caches with the given {@code gradle} if they have not already been
+	 * registered.
+	 * @param gradle the gradle
+	 * @return a provider of the caches
+	 */
+	public static Provider<PersistentPomCaches> register(Gradle gradle) {
+		String name = PersistentPomCaches.class.getName() + "_"
+				+ System.identityHashCode(PersistentPomCaches.class.getClassLoader());
+		File directory = new File(gradle.getGradleUserHomeDir(), "caches/io.spring.dependency-management");
+		return gradle.getSharedServices()
+			.registerIfAbsent(name, PersistentPomCaches.class,
+					(spec) -> spec.getParameters().getDirectory().set(directory));
+	}
+
+	PersistentPomCache getBoms() {
+		return this.boms;
+	}
+
+	PersistentPomCache getPomExclusions() {
+		return this.pomExclusions;
+	}
+
+	private static Pom withExclusionsOnly(Pom pom) {
+		return new Pom(pom.getCoordinates(), withExclusionsOnly(pom.getManagedDependencies()),
+				withExclusionsOnly(pom.getDependencies()), Collections.emptyMap());
+	}
+
+	private static List<Dependency> withExclusionsOnly(List<Dependency> dependencies) {
+		return dependencies.stream()
+			.filter((dependency) -> !dependency.getExclusions().isEmpty())
+			.collect(Collectors.toList());
+	}
+
+	/**
+	 * Parameters for the caches.
+	 */
+	public interface Parameters extends BuildServiceParameters {
+
+		/**
+		 * Returns the directory beneath which the caches store their poms.
+		 * @return the directory
+		 */
+		DirectoryProperty getDirectory();
+
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2023 the original author or authors.
+ * Copyright 2014-2024 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,9 +19,15 @@ package io.spring.gradle.dependencymanagement.internal.maven;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Properties;
 
 import io.spring.gradle.dependencymanagement.internal.properties.PropertySource;
+import io.spring.gradle.dependencymanagement.org.apache.maven.model.Dependency;
+import io.spring.gradle.dependencymanagement.org.apache.maven.model.DependencyManagement;
 import io.spring.gradle.dependencymanagement.org.apache.maven.model.Model;
 import io.spring.gradle.dependencymanagement.org.apache.maven.model.building.ModelBuildingRequest;
 import io.spring.gradle.dependencymanagement.org.apache.maven.model.building.ModelProblemCollector;
@@ -29,12 +35,22 @@ import io.spring.gradle.dependencymanagement.org.apache.maven.model.interpolatio
 import io.spring.gradle.dependencymanagement.org.apache.maven.model.interpolation.ModelInterpolator;
 import io.spring.gradle.dependencymanagement.org.apache.maven.model.path.DefaultPathTranslator;
 import io.spring.gradle.dependencymanagement.org.apache.maven.model.path.DefaultUrlNormalizer;
+import io.spring.gradle.dependencymanagement.org.codehaus.plexus.interpolation.InterpolationException;
 import io.spring.gradle.dependencymanagement.org.codehaus.plexus.interpolation.PropertiesBasedValueSource;
+import io.spring.gradle.dependencymanagement.org.codehaus.plexus.interpolation.StringSearchInterpolator;
 import io.spring.gradle.dependencymanagement.org.codehaus.plexus.interpolation.ValueSource;
 
 /**
  * A {@link ModelInterpolator} that uses properties from various sources as a
- * {@link ValueSource ValueSource}.
+ * {@link ValueSource ValueSource}. While interpolating a model, the interpolator records
+ * the managed dependencies whose versions were overridden by the properties, i.e. whose
+ * versions differ from those that they would have had if the model had been interpolated
+ * using only its own properties.
+ * <p>
+ * The interpolator is stateless so that it can be shared by many builds. The properties
+ * and the record of overridden versions are passed to it through the user properties of
+ * each {@link ModelBuildingRequest} as these are copied into the requests that Maven
+ * creates to build imported boms.
  *
  * @author Andy Wilkinson
  */
@@ -42,23 +58,109 @@ import io.spring.gradle.dependencymanagement.org.codehaus.plexus.interpolation.V
 class PropertiesModelInterpolator extends
 		io.spring.gradle.dependencymanagement.org.apache.maven.model.interpolation.StringSearchModelInterpolator {
 
-	private final PropertySource properties;
+	private static final String CONTEXT_KEY = PropertiesModelInterpolator.class.getName();
 
-	PropertiesModelInterpolator(PropertySource properties) {
-		this.properties = properties;
+	PropertiesModelInterpolator() {
 		setUrlNormalizer(new DefaultUrlNormalizer());
 		setPathTranslator(new DefaultPathTranslator());
 		setVersionPropertiesProcessor(new DefaultModelVersionProcessor());
 	}
 
+	/**
+	 * Configures the given {@code request} so that its model is interpolated using the
+	 * given {@code properties}, recording the managed dependencies whose versions they
+	 * override in the given {@code overrides}.
+	 * @param request the request to configure
+	 * @param properties the properties
+	 * @param overrides the record of overridden managed versions
+	 */
+	static void configure(ModelBuildingRequest request, PropertySource properties, ManagedVersionOverrides overrides) {
+		Properties userProperties = new Properties();
+		userProperties.put(CONTEXT_KEY, new InterpolationContext(properties, overrides));
+		request.setUserProperties(userProperties);
+	}
+
+	@Override
+	public Model interpolateModel(Model model, File projectDir, ModelBuildingRequest request,
+			ModelProblemCollector problems) {
+		Map<Dependency, String> defaultVersions = getDefaultManagedVersions(model, projectDir, request, problems);
+		Model interpolated = super.interpolateModel(model, projectDir, request, problems);
+		if (interpolated.getDependencyManagement() != null) {
+			ManagedVersionOverrides overrides = getContext(request).overrides;
+			boolean overriddenImport = overrides.isOverriddenImport(interpolated);
+			for (Dependency dependency : interpolated.getDependencyManagement().getDependencies()) {
+				String defaultVersion = defaultVersions.get(dependency);
+				if (overriddenImport || (defaultVersion != null && !defaultVersion.equals(dependency.getVersion()))) {
+					overrides.add(dependency);
+				}
+			}
+		}
+		return interpolated;
+	}
+
+	private Map<Dependency, String> getDefaultManagedVersions(Model model, File projectDir,
+			ModelBuildingRequest request, ModelProblemCollector problems) {
+		DependencyManagement dependencyManagement = model.getDependencyManagement();
+		if (dependencyManagement == null) {
+			return Collections.emptyMap();
+		}
+		// Interpolation happens in place so the dependencies can be identified after it
+		Map<Dependency, String> defaultVersions = new IdentityHashMap<>();
+		StringSearchInterpolator interpolator = null;
+		for (Dependency dependency : dependencyManagement.getDependencies()) {
+			String version = dependency.getVersion();
+			if (version != null && version.contains("${")) {
+				if (interpolator == null) {
+					interpolator = new StringSearchInterpolator();
+					interpolator.addValueSource(new PropertiesBasedValueSource(System.getProperties()));
+					for (ValueSource valueSource : super.createValueSources(model, projectDir, request, problems)) {
+						interpolator.addValueSource(valueSource);
+					}
+				}
+				defaultVersions.put(dependency, interpolate(interpolator, version));
+			}
+		}
+		return defaultVersions;
+	}
+
+	private String interpolate(StringSearchInterpolator interpolator, String version) {
+		try {
+			return interpolator.interpolate(version);
+		}
+		catch (InterpolationException ex) {
+			return version;
+		}
+	}
+
 	@Override
 	public List<ValueSource> createValueSources(Model model, File projectDir, ModelBuildingRequest request,
 			ModelProblemCollector collector) {
-		PropertySourceValueSource properties = new PropertySourceValueSource(this.properties);
+		PropertySourceValueSource properties = new PropertySourceValueSource(getContext(request).properties);
 		PropertiesBasedValueSource systemProperties = new PropertiesBasedValueSource(System.getProperties());
 		List<ValueSource> valueSources = new ArrayList<>(Arrays.asList(properties, systemProperties));
 		valueSources.addAll(super.createValueSources(model, projectDir, request, collector));
 		return valueSources;
 	}
 
+	private static InterpolationContext getContext(ModelBuildingRequest request) {
+		Object context = request.getUserProperties().get(CONTEXT_KEY);
+		if (!(context instanceof InterpolationContext)) {
+			throw new IllegalStateException("Model building request has not been configured for interpolation");
+		}
+		return (InterpolationContext) context;
+	}
+
+	private static final class InterpolationContext {
+
+		private final PropertySource properties;
+
+		private final ManagedVersionOverrides overrides;
+
+		private InterpolationContext(PropertySource properties, ManagedVersionOverrides overrides) {
+			this.properties = properties;
+			this.overrides = overrides;
+		}
+
+	}
+
 }
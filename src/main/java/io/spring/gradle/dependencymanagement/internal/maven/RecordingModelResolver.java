@@ -0,0 +1,110 @@
+/*
+ * Copyright 2014-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal.maven;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import io.spring.gradle.dependencymanagement.org.apache.maven.model.Parent;
+import io.spring.gradle.dependencymanagement.org.apache.maven.model.Repository;
+import io.spring.gradle.dependencymanagement.org.apache.maven.model.building.FileModelSource;
+import io.spring.gradle.dependencymanagement.org.apache.maven.model.resolution.InvalidRepositoryException;
+import io.spring.gradle.dependencymanagement.org.apache.maven.model.resolution.ModelResolver;
+import io.spring.gradle.dependencymanagement.org.apache.maven.model.resolution.UnresolvableModelException;
+
+/**
+ * A {@link ModelResolver} that records the poms that are resolved by its delegate and
+ * whether any of them was requested using a version that may resolve differently in a
+ * later build, i.e. a snapshot or a dynamic version such as a range.
+ *
+ * @author Andy Wilkinson
+ */
+@SuppressWarnings("deprecation")
+class RecordingModelResolver implements ModelResolver {
+
+	private final ModelResolver delegate;
+
+	private final Set<File> poms = new LinkedHashSet<>();
+
+	private boolean changing;
+
+	RecordingModelResolver(ModelResolver delegate) {
+		this.delegate = delegate;
+	}
+
+	@Override
+	public io.spring.gradle.dependencymanagement.org.apache.maven.model.building.ModelSource resolveModel(Parent parent)
+			throws UnresolvableModelException {
+		String version = parent.getVersion();
+		return record(version, this.delegate.resolveModel(parent));
+	}
+
+	@Override
+	public io.spring.gradle.dependencymanagement.org.apache.maven.model.building.ModelSource resolveModel(
+			io.spring.gradle.dependencymanagement.org.apache.maven.model.Dependency dependency)
+			throws UnresolvableModelException {
+		String version = dependency.getVersion();
+		return record(version, this.delegate.resolveModel(dependency));
+	}
+
+	@Override
+	public io.spring.gradle.dependencymanagement.org.apache.maven.model.building.ModelSource resolveModel(
+			String groupId, String artifactId, String version) throws UnresolvableModelException {
+		return record(version, this.delegate.resolveModel(groupId, artifactId, version));
+	}
+
+	private io.spring.gradle.dependencymanagement.org.apache.maven.model.building.ModelSource record(String version,
+			io.spring.gradle.dependencymanagement.org.apache.maven.model.building.ModelSource source) {
+		if (source instanceof FileModelSource) {
+			this.poms.add(((FileModelSource) source).getFile());
+		}
+		this.changing = this.changing || (version != null && isChanging(version));
+		return source;
+	}
+
+	private boolean isChanging(String version) {
+		return version.endsWith("-SNAPSHOT") || version.startsWith("[") || version.startsWith("(")
+				|| version.startsWith("latest.") || version.endsWith("+") || "LATEST".equals(version)
+				|| "RELEASE".equals(version);
+	}
+
+	Set<File> getPoms() {
+		return Collections.unmodifiableSet(this.poms);
+	}
+
+	boolean isChanging() {
+		return this.changing;
+	}
+
+	@Override
+	public void addRepository(Repository repository) throws InvalidRepositoryException {
+		this.delegate.addRepository(repository);
+	}
+
+	@Override
+	public void addRepository(Repository repository, boolean replace) throws InvalidRepositoryException {
+		this.delegate.addRepository(repository, replace);
+	}
+
+	@Override
+	public ModelResolver newCopy() {
+		return this;
+	}
+
+}
@@ -0,0 +1,256 @@
+/*
+ * Copyright 2014-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal.maven;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import io.spring.gradle.dependencymanagement.org.apache.maven.model.Dependency;
+import io.spring.gradle.dependencymanagement.org.apache.maven.model.DependencyManagement;
+import io.spring.gradle.dependencymanagement.org.apache.maven.model.Exclusion;
+import io.spring.gradle.dependencymanagement.org.apache.maven.model.Model;
+import io.spring.gradle.dependencymanagement.org.apache.maven.model.Parent;
+
+/**
+ * Reads the parts of a pom that are needed to build a lightweight effective model by
+ * streaming it with StAX. The coordinates, parent, properties, dependency management,
+ * and dependencies are read. All other elements are skipped. A pom that declares
+ * profiles or that cannot be read is rejected with an
+ * {@link UnsupportedModelException}.
+ *
+ * @author Andy Wilkinson
+ */
+@SuppressWarnings("deprecation")
+final class StaxPomReader {
+
+	private final XMLInputFactory inputFactory;
+
+	StaxPomReader() {
+		this.inputFactory = XMLInputFactory.newInstance();
+		this.inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+		this.inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+	}
+
+	/**
+	 * Reads the pom from the given {@code source}.
+	 * @param source the source of the pom
+	 * @return the raw model
+	 * @throws UnsupportedModelException if the pom cannot be read or uses a feature that
+	 * is not supported
+	 */
+	Model read(io.spring.gradle.dependencymanagement.org.apache.maven.model.building.ModelSource source)
+			throws UnsupportedModelException {
+		try (InputStream input = source.getInputStream()) {
+			XMLStreamReader reader = this.inputFactory.createXMLStreamReader(input);
+			try {
+				reader.nextTag();
+				if (!"project".equals(reader.getLocalName())) {
+					throw new UnsupportedModelException(source.getLocation() + " is not a pom");
+				}
+				return readProject(reader);
+			}
+			finally {
+				reader.close();
+			}
+		}
+		catch (IOException | XMLStreamException ex) {
+			throw new UnsupportedModelException("Failed to read " + source.getLocation(), ex);
+		}
+	}
+
+	private Model readProject(XMLStreamReader reader) throws XMLStreamException, UnsupportedModelException {
+		Model model = new Model();
+		while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+			switch (reader.getLocalName()) {
+				case "groupId":
+					model.setGroupId(readText(reader));
+					break;
+				case "artifactId":
+					model.setArtifactId(readText(reader));
+					break;
+				case "version":
+					model.setVersion(readText(reader));
+					break;
+				case "packaging":
+					model.setPackaging(readText(reader));
+					break;
+				case "parent":
+					model.setParent(readParent(reader));
+					break;
+				case "properties":
+					readProperties(reader, model);
+					break;
+				case "dependencyManagement":
+					model.setDependencyManagement(readDependencyManagement(reader));
+					break;
+				case "dependencies":
+					model.setDependencies(readDependencies(reader));
+					break;
+				case "profiles":
+					throw new UnsupportedModelException("Profiles are not supported");
+				default:
+					skip(reader);
+			}
+		}
+		return model;
+	}
+
+	private Parent readParent(XMLStreamReader reader) throws XMLStreamException {
+		Parent parent = new Parent();
+		while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+			switch (reader.getLocalName()) {
+				case "groupId":
+					parent.setGroupId(readText(reader));
+					break;
+				case "artifactId":
+					parent.setArtifactId(readText(reader));
+					break;
+				case "version":
+					parent.setVersion(readText(reader));
+					break;
+				case "relativePath":
+					parent.setRelativePath(readText(reader));
+					break;
+				default:
+					skip(reader);
+			}
+		}
+		return parent;
+	}
+
+	private void readProperties(XMLStreamReader reader, Model model) throws XMLStreamException {
+		while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+			String name = reader.getLocalName();
+			model.getProperties().setProperty(name, readText(reader));
+		}
+	}
+
+	private DependencyManagement readDependencyManagement(XMLStreamReader reader) throws XMLStreamException {
+		DependencyManagement dependencyManagement = new DependencyManagement();
+		while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+			if ("dependencies".equals(reader.getLocalName())) {
+				dependencyManagement.setDependencies(readDependencies(reader));
+			}
+			else {
+				skip(reader);
+			}
+		}
+		return dependencyManagement;
+	}
+
+	private List<Dependency> readDependencies(XMLStreamReader reader) throws XMLStreamException {
+		List<Dependency> dependencies = new ArrayList<>();
+		while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+			if ("dependency".equals(reader.getLocalName())) {
+				dependencies.add(readDependency(reader));
+			}
+			else {
+				skip(reader);
+			}
+		}
+		return dependencies;
+	}
+
+	private Dependency readDependency(XMLStreamReader reader) throws XMLStreamException {
+		Dependency dependency = new Dependency();
+		while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+			switch (reader.getLocalName()) {
+				case "groupId":
+					dependency.setGroupId(readText(reader));
+					break;
+				case "artifactId":
+					dependency.setArtifactId(readText(reader));
+					break;
+				case "version":
+					dependency.setVersion(readText(reader));
+					break;
+				case "type":
+					dependency.setType(readText(reader));
+					break;
+				case "classifier":
+					dependency.setClassifier(readText(reader));
+					break;
+				case "scope":
+					dependency.setScope(readText(reader));
+					break;
+				case "optional":
+					dependency.setOptional(readText(reader));
+					break;
+				case "exclusions":
+					dependency.setExclusions(readExclusions(reader));
+					break;
+				default:
+					skip(reader);
+			}
+		}
+		return dependency;
+	}
+
+	private List<Exclusion> readExclusions(XMLStreamReader reader) throws XMLStreamException {
+		List<Exclusion> exclusions = new ArrayList<>();
+		while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+			if ("exclusion".equals(reader.getLocalName())) {
+				exclusions.add(readExclusion(reader));
+			}
+			else {
+				skip(reader);
+			}
+		}
+		return exclusions;
+	}
+
+	private Exclusion readExclusion(XMLStreamReader reader) throws XMLStreamException {
+		Exclusion exclusion = new Exclusion();
+		while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+			if ("groupId".equals(reader.getLocalName())) {
+				exclusion.setGroupId(readText(reader));
+			}
+			else if ("artifactId".equals(reader.getLocalName())) {
+				exclusion.setArtifactId(readText(reader));
+			}
+			else {
+				skip(reader);
+			}
+		}
+		return exclusion;
+	}
+
+	private String readText(XMLStreamReader reader) throws XMLStreamException {
+		return reader.getElementText().trim();
+	}
+
+	private void skip(XMLStreamReader reader) throws XMLStreamException {
+		int depth = 1;
+		while (depth > 0) {
+			int event = reader.next();
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				depth++;
+			}
+			else if (event == XMLStreamConstants.END_ELEMENT) {
+				depth--;
+			}
+		}
+	}
+
+}
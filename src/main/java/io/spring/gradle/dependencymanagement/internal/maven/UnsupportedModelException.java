@@ -0,0 +1,37 @@
+/*
+ * Copyright 2014-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal.maven;
+
+/**
+ * Thrown by {@link LightweightModelBuilder} when a pom uses a feature that it does not
+ * support and the full model builder should be used instead.
+ *
+ * @author Andy Wilkinson
+ */
+class UnsupportedModelException extends Exception {
+
+	private static final long serialVersionUID = 1L;
+
+	UnsupportedModelException(String message) {
+		super(message);
+	}
+
+	UnsupportedModelException(String message, Throwable cause) {
+		super(message, cause);
+	}
+
+}
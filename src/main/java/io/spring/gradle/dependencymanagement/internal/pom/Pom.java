@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2022 the original author or authors.
+ * Copyright 2014-2024 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 
 package io.spring.gradle.dependencymanagement.internal.pom;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -34,6 +35,8 @@ public class Pom {
 
 	private final Map<String, String> properties;
 
+	private final List<Dependency> overriddenManagedDependencies;
+
 	/**
 	 * Creates a new pom.
 	 * @param coordinates the coordinates of the pom
@@ -43,10 +46,25 @@ public class Pom {
 	 */
 	public Pom(Coordinates coordinates, List<Dependency> managedDependencies, List<Dependency> dependencies,
 			Map<String, String> properties) {
+		this(coordinates, managedDependencies, dependencies, properties, Collections.emptyList());
+	}
+
+	/**
+	 * Creates a new pom.
+	 * @param coordinates the coordinates of the pom
+	 * @param managedDependencies the managed dependencies
+	 * @param dependencies the dependencies
+	 * @param properties the properties
+	 * @param overriddenManagedDependencies the managed dependencies whose versions were
+	 * overridden by properties supplied when the pom was resolved
+	 */
+	public Pom(Coordinates coordinates, List<Dependency> managedDependencies, List<Dependency> dependencies,
+			Map<String, String> properties, List<Dependency> overriddenManagedDependencies) {
 		this.coordinates = coordinates;
 		this.managedDependencies = managedDependencies;
 		this.dependencies = dependencies;
 		this.properties = properties;
+		this.overriddenManagedDependencies = overriddenManagedDependencies;
 	}
 
 	/**
@@ -57,6 +75,16 @@ public class Pom {
 		return this.managedDependencies;
 	}
 
+	/**
+	 * Returns the pom's managed dependencies whose versions were overridden by properties
+	 * that were supplied when the pom was resolved, i.e. those whose versions differ from
+	 * the versions that the pom itself would provide.
+	 * @return the overridden managed dependencies
+	 */
+	public List<Dependency> getOverriddenManagedDependencies() {
+		return this.overriddenManagedDependencies;
+	}
+
 	/**
 	 * Returns the pom's properties.
 	 * @return the properties
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2014-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal.properties;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A {@link PropertySource} that records the properties that are read from its delegate.
+ *
+ * @author Andy Wilkinson
+ */
+public class RecordingPropertySource implements PropertySource {
+
+	private final PropertySource delegate;
+
+	private final Map<String, String> recordedProperties = new LinkedHashMap<>();
+
+	/**
+	 * Creates a new {@code RecordingPropertySource} that will record the properties that
+	 * are read from the given {@code delegate}.
+	 * @param delegate the delegate
+	 */
+	public RecordingPropertySource(PropertySource delegate) {
+		this.delegate = delegate;
+	}
+
+	@Override
+	public Object getProperty(String name) {
+		Object value = this.delegate.getProperty(name);
+		this.recordedProperties.put(name, (value != null) ? value.toString() : null);
+		return value;
+	}
+
+	/**
+	 * Returns the properties that have been read, keyed by name. A property that was read
+	 * but that the delegate did not have has a {@code null} value.
+	 * @return the recorded properties
+	 */
+	public Map<String, String> getRecordedProperties() {
+		return Collections.unmodifiableMap(this.recordedProperties);
+	}
+
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2014-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal.report;
+
+import java.io.PrintWriter;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import io.spring.gradle.dependencymanagement.internal.DependencyManagementProfiler.ConfigurationProfile;
+
+/**
+ * {@code DependencyManagementProfileRenderer} renders the time that dependency management
+ * spent on each of a project's configurations as a table.
+ *
+ * @author Andy Wilkinson
+ */
+class DependencyManagementProfileRenderer {
+
+	private static final String[] HEADINGS = { "Total (ms)", "Boms (ms)", "Exclusions (ms)", "Versions (ms)",
+			"Callbacks" };
+
+	private final PrintWriter output;
+
+	DependencyManagementProfileRenderer() {
+		this(new PrintWriter(System.out));
+	}
+
+	DependencyManagementProfileRenderer(PrintWriter writer) {
+		this.output = writer;
+	}
+
+	void startProject(String path, boolean root) {
+		this.output.println();
+		this.output.println("------------------------------------------------------------");
+		this.output.println(root ? "Root project" : ("Project " + path));
+		this.output.println("------------------------------------------------------------");
+		this.output.println();
+	}
+
+	void renderProfiles(List<ConfigurationProfile> profiles) {
+		if (profiles.isEmpty()) {
+			this.output.println("No dependency management has been applied");
+			this.output.println();
+			this.output.flush();
+			return;
+		}
+		int nameWidth = "Configuration".length();
+		for (ConfigurationProfile profile : profiles) {
+			nameWidth = Math.max(nameWidth, profile.getConfigurationName().length());
+		}
+		StringBuilder heading = new StringBuilder(pad("Configuration", nameWidth));
+		for (String column : HEADINGS) {
+			heading.append("  ").append(column);
+		}
+		this.output.println(heading);
+		for (ConfigurationProfile profile : profiles) {
+			this.output.println(pad(profile.getConfigurationName(), nameWidth) + "  "
+					+ column(millis(profile.getTotalNanos()), 0) + "  "
+					+ column(millis(profile.getBomResolutionNanos()), 1) + "  "
+					+ column(millis(profile.getExclusionResolutionNanos()), 2) + "  "
+					+ column(millis(profile.getVersionCallbackNanos()), 3) + "  "
+					+ column(Long.toString(profile.getVersionCallbacks()), 4));
+		}
+		this.output.println();
+		this.output.flush();
+	}
+
+	private String pad(String value, int width) {
+		StringBuilder padded = new StringBuilder(value);
+		while (padded.length() < width) {
+			padded.append(' ');
+		}
+		return padded.toString();
+	}
+
+	private String column(String value, int index) {
+		StringBuilder column = new StringBuilder();
+		while (column.length() + value.length() < HEADINGS[index].length()) {
+			column.append(' ');
+		}
+		return column.append(value).toString();
+	}
+
+	private static String millis(long nanos) {
+		return String.format(Locale.ROOT, "%.1f", nanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+	}
+
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2014-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal.report;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.spring.gradle.dependencymanagement.internal.DependencyManagementMetrics;
+import io.spring.gradle.dependencymanagement.internal.DependencyManagementProfiler;
+import io.spring.gradle.dependencymanagement.internal.DependencyManagementProfiler.ConfigurationProfile;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.Project;
+import org.gradle.api.artifacts.Configuration;
+import org.gradle.api.artifacts.ConfigurationContainer;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.tasks.TaskAction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Task to profile the time that dependency management spends on each of a project's
+ * configurations. When the task is executed, each resolvable configuration is resolved,
+ * if it has not been already, and the configurations are then reported in order of the
+ * time spent on them, most expensive first. A configuration that fails to resolve does
+ * not prevent the others from being profiled. When {@link DependencyManagementMetrics
+ * metrics} are being collected, the profile is also included in them.
+ *
+ * @author Andy Wilkinson
+ */
+public class DependencyManagementProfileTask extends DefaultTask {
+
+	private static final Logger logger = LoggerFactory.getLogger(DependencyManagementProfileTask.class);
+
+	private final ConfigurationContainer configurations;
+
+	private final Provider<DependencyManagementMetrics> metrics;
+
+	private final String projectPath;
+
+	private final boolean rootProject;
+
+	private DependencyManagementProfiler profiler;
+
+	private DependencyManagementProfileRenderer renderer;
+
+	public DependencyManagementProfileTask() {
+		Project project = getProject();
+		this.configurations = project.getConfigurations();
+		this.metrics = DependencyManagementMetrics.register(project);
+		this.projectPath = project.getPath();
+		this.rootProject = project.getRootProject().equals(project);
+	}
+
+	void setRenderer(DependencyManagementProfileRenderer renderer) {
+		this.renderer = renderer;
+	}
+
+	/**
+	 * Sets the profiler that records the time spent on each configuration.
+	 * @param profiler the profiler
+	 */
+	public void setProfiler(DependencyManagementProfiler profiler) {
+		this.profiler = profiler;
+	}
+
+	/**
+	 * {@link TaskAction} that produces the dependency management profile.
+	 */
+	@TaskAction
+	public void profile() {
+		for (Configuration configuration : new ArrayList<>(this.configurations)) {
+			if (configuration.isCanBeResolved()) {
+				resolve(configuration);
+			}
+		}
+		List<ConfigurationProfile> profiles = this.profiler.getProfiles();
+		DependencyManagementProfileRenderer renderer = (this.renderer != null) ? this.renderer
+				: new DependencyManagementProfileRenderer();
+		renderer.startProject(this.projectPath, this.rootProject);
+		renderer.renderProfiles(profiles);
+		this.metrics.get().configurationsProfiled(this.projectPath, profiles);
+	}
+
+	private void resolve(Configuration configuration) {
+		try {
+			configuration.getIncoming().getResolutionResult().getRoot();
+		}
+		catch (RuntimeException ex) {
+			logger.warn("Failed to resolve {} while profiling dependency management", configuration, ex);
+		}
+	}
+
+}
@@ -21,7 +21,6 @@ import java.util.Map;
 import java.util.TreeMap;
 
 import org.gradle.api.Project;
-import org.gradle.api.artifacts.Configuration;
 
 /**
  * {@code DependencyManagementReportRenderer} renders a report the describes a
@@ -84,10 +83,10 @@ class DependencyManagementReportRenderer {
 		this.output.println();
 	}
 
-	void renderConfigurationManagedVersions(Map<String, String> managedVersions, Configuration configuration,
+	void renderConfigurationManagedVersions(Map<String, String> managedVersions, String configurationName,
 			Map<String, String> globalManagedVersions) {
-		renderDependencyManagementHeader(configuration.getName(),
-				"Dependency management for the " + configuration.getName() + " configuration");
+		renderDependencyManagementHeader(configurationName,
+				"Dependency management for the " + configurationName + " configuration");
 		if (managedVersions != null && !managedVersions.isEmpty()) {
 			if (!managedVersions.equals(globalManagedVersions)) {
 				renderManagedVersions(managedVersions);
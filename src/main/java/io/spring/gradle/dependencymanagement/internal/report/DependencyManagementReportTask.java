@@ -16,28 +16,33 @@
 
 package io.spring.gradle.dependencymanagement.internal.report;
 
-import java.util.Comparator;
+import java.util.HashMap;
 import java.util.Map;
-import java.util.Set;
-import java.util.TreeSet;
+import java.util.TreeMap;
 
 import io.spring.gradle.dependencymanagement.internal.DependencyManagementContainer;
 import org.gradle.api.DefaultTask;
 import org.gradle.api.Project;
 import org.gradle.api.artifacts.Configuration;
 import org.gradle.api.artifacts.ConfigurationContainer;
+import org.gradle.api.provider.Provider;
 import org.gradle.api.tasks.TaskAction;
 
 /**
- * Task to display the dependency management for a project.
+ * Task to display the dependency management for a project. The managed versions that
+ * are reported are captured using providers so that the task does not need to hold a
+ * reference to the project or its configurations when it is executed, allowing it to be
+ * stored in Gradle's configuration cache.
  *
  * @author Andy Wilkinson.
  */
 public class DependencyManagementReportTask extends DefaultTask {
 
-	private DependencyManagementContainer dependencyManagementContainer;
+	private Provider<Map<String, String>> globalManagedVersions;
 
-	private DependencyManagementReportRenderer renderer = new DependencyManagementReportRenderer();
+	private Provider<Map<String, Map<String, String>>> configurationManagedVersions;
+
+	private DependencyManagementReportRenderer renderer;
 
 	private final String projectPath;
 
@@ -45,14 +50,11 @@ public class DependencyManagementReportTask extends DefaultTask {
 
 	private final boolean rootProject;
 
-	private final ConfigurationContainer configurationContainer;
-
 	public DependencyManagementReportTask() {
 		Project project = getProject();
 		this.projectPath = project.getPath();
 		this.projectDescription = project.getDescription();
 		this.rootProject = project.getRootProject().equals(project);
-		this.configurationContainer = project.getConfigurations();
 	}
 
 	void setRenderer(DependencyManagementReportRenderer renderer) {
@@ -64,7 +66,21 @@ public class DependencyManagementReportTask extends DefaultTask {
 	 * @param dependencyManagementContainer the container
 	 */
 	public void setDependencyManagementContainer(DependencyManagementContainer dependencyManagementContainer) {
-		this.dependencyManagementContainer = dependencyManagementContainer;
+		ConfigurationContainer configurations = getProject().getConfigurations();
+		this.globalManagedVersions = getProject()
+			.provider(() -> new HashMap<>(dependencyManagementContainer.getManagedVersionsForConfiguration(null)));
+		this.configurationManagedVersions = getProject()
+			.provider(() -> getManagedVersionsByConfiguration(dependencyManagementContainer, configurations));
+	}
+
+	private static Map<String, Map<String, String>> getManagedVersionsByConfiguration(
+			DependencyManagementContainer dependencyManagementContainer, ConfigurationContainer configurations) {
+		Map<String, Map<String, String>> managedVersionsByConfiguration = new TreeMap<>();
+		for (Configuration configuration : configurations) {
+			managedVersionsByConfiguration.put(configuration.getName(),
+					new HashMap<>(dependencyManagementContainer.getManagedVersionsForConfiguration(configuration)));
+		}
+		return managedVersionsByConfiguration;
 	}
 
 	/**
@@ -72,17 +88,14 @@ public class DependencyManagementReportTask extends DefaultTask {
 	 */
 	@TaskAction
 	public void report() {
-		this.renderer.startProject(this.projectPath, this.projectDescription, this.rootProject);
-		Map<String, String> globalManagedVersions = this.dependencyManagementContainer
-			.getManagedVersionsForConfiguration(null);
-		this.renderer.renderGlobalManagedVersions(globalManagedVersions);
-		Set<Configuration> configurations = new TreeSet<>(Comparator.comparing(Configuration::getName));
-		configurations.addAll(this.configurationContainer);
-		for (Configuration configuration : configurations) {
-			Map<String, String> managedVersions = this.dependencyManagementContainer
-				.getManagedVersionsForConfiguration(configuration);
-			this.renderer.renderConfigurationManagedVersions(managedVersions, configuration, globalManagedVersions);
-		}
+		DependencyManagementReportRenderer renderer = (this.renderer != null) ? this.renderer
+				: new DependencyManagementReportRenderer();
+		renderer.startProject(this.projectPath, this.projectDescription, this.rootProject);
+		Map<String, String> globalManagedVersions = this.globalManagedVersions.get();
+		renderer.renderGlobalManagedVersions(globalManagedVersions);
+		this.configurationManagedVersions.get()
+			.forEach((configurationName, managedVersions) -> renderer
+				.renderConfigurationManagedVersions(managedVersions, configurationName, globalManagedVersions));
 	}
 
 }
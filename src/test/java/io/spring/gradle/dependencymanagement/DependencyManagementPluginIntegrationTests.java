@@ -92,6 +92,22 @@ class DependencyManagementPluginIntegrationTests {
 		assertThat(readLines("resolved.txt")).containsOnly("child-1.1.0.jar");
 	}
 
+	@Test
+	void projectDependenciesTakePrecedenceOverDependencyManagementWhenTheirProjectsAreEvaluatedFirst() {
+		writeLines(Paths.get("settings.gradle"), "include ':alpha'", "include ':bravo'");
+		writeLines(Paths.get("alpha", "build.gradle"), "group = 'test'", "version = '1.1.0'", "apply plugin: 'java'");
+		writeLines(Paths.get("bravo", "build.gradle"), "plugins {", "    id 'io.spring.dependency-management'",
+				"    id 'java'", "}", "dependencyManagement {", "    dependencies {",
+				"        dependency 'test:alpha:1.0.0'", "    }", "}", "dependencies {",
+				"    implementation project(':alpha')", "}", "task resolve {", "    doFirst {",
+				"        def output = new File(rootProject.buildDir, 'resolved.txt')",
+				"        output.parentFile.mkdirs()",
+				"        configurations.compileClasspath.resolve().each { output << \"${it.name}\\n\" }", "    }",
+				"}");
+		this.gradleBuild.runner().withArguments("resolve").build();
+		assertThat(readLines("resolved.txt")).containsOnly("alpha-1.1.0.jar");
+	}
+
 	@Test
 	void transitiveProjectDependenciesTakePrecedenceOverDependencyManagement() {
 		writeLines(Paths.get("settings.gradle"), "include ':child'", "include ':grandchild'");
@@ -103,6 +119,14 @@ class DependencyManagementPluginIntegrationTests {
 		assertThat(readLines("resolved.txt")).containsOnly("child-1.1.0.jar", "grandchild-1.1.0.jar");
 	}
 
+	@Test
+	void projectDependenciesTakePrecedenceOverDependencyManagementWhenConfiguringOnDemand() {
+		writeLines(Paths.get("settings.gradle"), "include ':child'");
+		writeLines(Paths.get("child", "build.gradle"), "group = 'test'", "version = '1.1.0'", "apply plugin: 'java'");
+		this.gradleBuild.runner().withArguments("--configure-on-demand", "resolve").build();
+		assertThat(readLines("resolved.txt")).containsOnly("child-1.1.0.jar");
+	}
+
 	@Test
 	void versionsOfDirectDependenciesTakePrecedenceOverDependencyManagementInAnImportedBom() {
 		this.gradleBuild.runner().withArguments("resolve").build();
@@ -179,11 +203,43 @@ class DependencyManagementPluginIntegrationTests {
 		assertThat(readLines("resolved.txt")).containsOnly("spring-core-4.1.4.RELEASE.jar");
 	}
 
+	@Test
+	void dependencyManagementCanBeProfiledWhenAConfigurationFailsToResolve() {
+		BuildResult result = this.gradleBuild.runner()
+			.withArguments("-Pio.spring.dependency-management.metrics=build/metrics.json",
+					"dependencyManagementProfile")
+			.build();
+		assertThat(result.getOutput()).contains("Failed to resolve configuration ':broken'");
+		assertThat(String.join("\n", readLines("metrics.json"))).contains("\"profiles\"")
+			.contains("\":compileClasspath\": { \"totalMillis\"");
+	}
+
 	@Test
 	void managedVersionsCanBeAccessedProgramatically() {
 		this.gradleBuild.runner().withArguments("verify").build();
 	}
 
+	@Test
+	void managedVersionsThatAreAccessedProgramaticallyAreACopy() {
+		this.gradleBuild.runner().withArguments("verify").build();
+	}
+
+	@Test
+	void managedVersionsCanBeAccessedLazily() {
+		this.gradleBuild.runner().withArguments("verify").build();
+	}
+
+	@Test
+	void accessingManagedVersionsLazilyDoesNotResolveImportedBoms() {
+		BuildResult result = this.gradleBuild.runner().withArguments("help", "--info").build();
+		assertThat(result.getOutput()).doesNotContain("Resolving global dependency management");
+	}
+
+	@Test
+	void bomImportedAfterManagedVersionsHaveBeenReadIsApplied() {
+		this.gradleBuild.runner().withArguments("help").build();
+	}
+
 	@Test
 	void propertiesImportedFromABomCanBeAccessed() {
 		this.gradleBuild.runner().withArguments("verify").build();
@@ -256,6 +312,31 @@ class DependencyManagementPluginIntegrationTests {
 				"spring-beans-4.1.2.RELEASE.jar", "spring-core-4.1.2.RELEASE.jar");
 	}
 
+	@Test
+	void directExclusionDeclaredInABomIsHonoredWhenSinglePassIsEnabled() {
+		this.gradleBuild.runner().withArguments("resolve").build();
+		assertThat(readLines("resolved.txt")).containsOnly("spring-tx-4.1.2.RELEASE.jar",
+				"spring-beans-4.1.2.RELEASE.jar", "spring-core-4.1.2.RELEASE.jar");
+	}
+
+	@Test
+	void configurationsWithDifferentExclusionsAreHonoredWhenSinglePassIsEnabled() {
+		this.gradleBuild.runner().withArguments("resolve").build();
+		assertThat(readLines("resolved-excluded.txt")).containsOnly("spring-tx-4.1.2.RELEASE.jar",
+				"spring-beans-4.1.2.RELEASE.jar", "spring-core-4.1.2.RELEASE.jar");
+		assertThat(readLines("resolved-unexcluded.txt")).containsOnly("spring-tx-4.1.2.RELEASE.jar",
+				"spring-beans-4.1.2.RELEASE.jar", "spring-core-4.1.2.RELEASE.jar", "commons-logging-1.1.3.jar");
+	}
+
+	@Test
+	void singlePassAndDefaultMavenExclusionsResolveTheSameGraph() {
+		this.gradleBuild.runner().withArguments("resolve").build();
+		this.gradleBuild.runner().withArguments("-PsinglePass", "resolve").build();
+		List<String> resolved = readLines("resolved-default.txt");
+		assertThat(resolved).noneMatch((component) -> component.startsWith("commons-logging:"));
+		assertThat(readLines("resolved-single-pass.txt")).isEqualTo(resolved);
+	}
+
 	@Test
 	void wildcardExclusionDeclaredInABomIsHonored() {
 		this.gradleBuild.runner().withArguments("resolve").build();
@@ -538,6 +619,50 @@ class DependencyManagementPluginIntegrationTests {
 		assertThat(result.getOutput()).doesNotContain("Error");
 	}
 
+	@Test
+	void metricsAreWrittenToAFileWhenEnabled() {
+		this.gradleBuild.runner()
+			.withArguments("-Pio.spring.dependency-management.metrics=build/metrics.json", "resolve")
+			.build();
+		assertThat(String.join("\n", readLines("metrics.json"))).contains("\"effectiveModels\"")
+			.contains("\"spring-boot-dependencies-1.2.7.RELEASE.pom\"")
+			.contains("\"detachedConfigurations\"")
+			.contains("\"exclusionResolution\"")
+			.contains("\":compileClasspath\"")
+			.contains("\"caches\"")
+			.containsPattern("\"managedVersions\": \\{\n    \":compileClasspath\": [1-9]");
+	}
+
+	@Test
+	void configurationsThatAreNeverResolvedAreNotRealized() {
+		this.gradleBuild.runner().withArguments("resolve").build();
+		assertThat(readLines("resolved.txt")).containsOnly("spring-core-4.0.6.RELEASE.jar",
+				"commons-logging-1.1.2.jar");
+	}
+
+	@Test
+	void dependencyManagementIsAppliedToACopyOfAConfigurationThatIsMadeBeforeItIsResolved() {
+		this.gradleBuild.runner().withArguments("resolve").build();
+		assertThat(readLines("resolved-copy.txt")).containsOnly("spring-tx-4.1.2.RELEASE.jar",
+				"spring-beans-4.1.2.RELEASE.jar", "spring-core-4.1.2.RELEASE.jar", "slf4j-api-1.7.25.jar");
+		assertThat(readLines("resolved.txt")).containsOnly("spring-tx-4.1.2.RELEASE.jar",
+				"spring-beans-4.1.2.RELEASE.jar", "spring-core-4.1.2.RELEASE.jar", "slf4j-api-1.7.25.jar");
+	}
+
+	@Test
+	void managedVersionsCanBeAppliedAsConstraints() {
+		this.gradleBuild.runner().withArguments("resolve").build();
+		assertThat(readLines("resolved-managed.txt")).containsOnly("spring-core-4.0.6.RELEASE.jar",
+				"commons-logging-1.1.2.jar", "slf4j-api-1.7.36.jar");
+		assertThat(readLines("resolved-overridden.txt")).containsOnly("spring-core-4.0.6.RELEASE.jar",
+				"commons-logging-1.1.3.jar");
+		assertThat(readLines("constraints-managed.txt")).containsOnly("org.springframework:spring-core:4.0.6.RELEASE:",
+				"commons-logging:commons-logging:1.1.2:1.1.2");
+		assertThat(readLines("constraints-overridden.txt")).containsOnly(
+				"org.springframework:spring-core:4.0.6.RELEASE:", "commons-logging:commons-logging:1.1.3:",
+				"org.slf4j:slf4j-api:1.7.25:1.7.25");
+	}
+
 	private void writeLines(Path path, String... lines) {
 		try {
 			Path resolvedPath = this.gradleBuild.runner().getProjectDir().toPath().resolve(path);
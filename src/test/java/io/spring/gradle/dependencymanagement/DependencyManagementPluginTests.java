@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2022 the original author or authors.
+ * Copyright 2014-2024 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -63,4 +63,10 @@ class DependencyManagementPluginTests {
 		assertThat(this.project.getTasks().findByName("dependencyManagement")).isNotNull();
 	}
 
+	@Test
+	void whenPluginIsAppliedThenDependencyManagementProfileTaskIsAdded() {
+		this.project.getPlugins().apply(DependencyManagementPlugin.class);
+		assertThat(this.project.getTasks().findByName("dependencyManagementProfile")).isNotNull();
+	}
+
 }
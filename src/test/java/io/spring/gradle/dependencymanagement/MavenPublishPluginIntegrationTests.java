@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2022 the original author or authors.
+ * Copyright 2014-2024 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,6 +19,7 @@ package io.spring.gradle.dependencymanagement;
 import java.nio.file.Paths;
 
 import org.gradle.api.publish.maven.plugins.MavenPublishPlugin;
+import org.gradle.testkit.runner.BuildResult;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
 
@@ -40,6 +41,16 @@ class MavenPublishPluginIntegrationTests {
 		assertThat(generatedPom()).nodeAtPath("//dependencyManagement").isNotNull();
 	}
 
+	@Test
+	void generatedPomsAreCustomizedWhenTheConfigurationCacheIsUsed() {
+		this.gradleBuild.runner().withArguments("generatePom", "--configuration-cache").build();
+		BuildResult result = this.gradleBuild.runner()
+			.withArguments("generatePom", "--configuration-cache", "--rerun-tasks")
+			.build();
+		assertThat(result.getOutput()).contains("Reusing configuration cache.");
+		assertThat(generatedPom()).nodeAtPath("//dependencyManagement").isNotNull();
+	}
+
 	@Test
 	void customizationOfGeneratedPomsCanBeDisabled() {
 		this.gradleBuild.runner().withArguments("generatePom").build();
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2014-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal;
+
+import io.spring.gradle.dependencymanagement.internal.DependencyManagementProfiler.ConfigurationProfile;
+import org.gradle.api.Project;
+import org.gradle.api.artifacts.Configuration;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link DependencyManagementProfiler}.
+ *
+ * @author Andy Wilkinson
+ */
+class DependencyManagementProfilerTests {
+
+	private final Project project = ProjectBuilder.builder().build();
+
+	private final DependencyManagementProfiler profiler = new DependencyManagementProfiler();
+
+	@Test
+	void whenDisabledNothingIsRecorded() {
+		Configuration configuration = this.project.getConfigurations().create("configuration");
+		this.profiler.recordBomResolution(configuration, 100);
+		this.profiler.recordExclusionResolution(configuration, 100);
+		this.profiler.recordVersionCallback(configuration, 100);
+		assertThat(this.profiler.getProfiles()).isEmpty();
+	}
+
+	@Test
+	void profilesAreOrderedByTotalTimeMostExpensiveFirst() {
+		this.profiler.setEnabled(true);
+		Configuration cheap = this.project.getConfigurations().create("cheap");
+		Configuration expensive = this.project.getConfigurations().create("expensive");
+		this.profiler.recordBomResolution(cheap, 100);
+		this.profiler.recordBomResolution(expensive, 50);
+		this.profiler.recordExclusionResolution(expensive, 50);
+		this.profiler.recordVersionCallback(expensive, 10);
+		this.profiler.recordVersionCallback(expensive, 10);
+		assertThat(this.profiler.getProfiles()).extracting(ConfigurationProfile::getConfigurationName)
+			.containsExactly("expensive", "cheap");
+		ConfigurationProfile profile = this.profiler.getProfiles().get(0);
+		assertThat(profile.getTotalNanos()).isEqualTo(120);
+		assertThat(profile.getVersionCallbacks()).isEqualTo(2);
+	}
+
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2014-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.spring.gradle.dependencymanagement.internal.pom.Coordinates;
+import io.spring.gradle.dependencymanagement.internal.pom.Dependency;
+import io.spring.gradle.dependencymanagement.internal.pom.Pom;
+import io.spring.gradle.dependencymanagement.internal.pom.PomReference;
+import io.spring.gradle.dependencymanagement.internal.pom.PomResolver;
+import io.spring.gradle.dependencymanagement.internal.properties.MapPropertySource;
+import io.spring.gradle.dependencymanagement.internal.properties.PropertySource;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link DependencyManagement}.
+ *
+ * @author Andy Wilkinson
+ */
+class DependencyManagementTests {
+
+	@Test
+	void concurrentAccessResolvesImportedBomsOnce() throws Exception {
+		CountingPomResolver pomResolver = new CountingPomResolver();
+		DependencyManagement dependencyManagement = new DependencyManagement(ProjectBuilder.builder().build(),
+				pomResolver);
+		dependencyManagement.importBom(new Coordinates("com.example", "bom", "1.0"),
+				new MapPropertySource(Collections.emptyMap()));
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			CountDownLatch start = new CountDownLatch(1);
+			List<Future<String>> versions = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				versions.add(executor.submit(() -> {
+					start.await();
+					return dependencyManagement.getManagedVersion("com.example", "alpha");
+				}));
+			}
+			start.countDown();
+			for (Future<String> version : versions) {
+				assertThat(version.get(30, TimeUnit.SECONDS)).isEqualTo("1.2.3");
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		assertThat(pomResolver.resolutions).hasValue(1);
+	}
+
+	private static final class CountingPomResolver implements PomResolver {
+
+		private final AtomicInteger resolutions = new AtomicInteger();
+
+		@Override
+		public List<Pom> resolvePoms(List<PomReference> pomReferences, PropertySource properties) {
+			this.resolutions.incrementAndGet();
+			try {
+				Thread.sleep(100);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			Dependency alpha = new Dependency(new Coordinates("com.example", "alpha", "1.2.3"),
+					Collections.emptySet());
+			return Collections.singletonList(new Pom(pomReferences.get(0).getCoordinates(),
+					Collections.singletonList(alpha), Collections.emptyList(), Collections.emptyMap()));
+		}
+
+		@Override
+		public List<Pom> resolvePomsLeniently(List<PomReference> pomReferences) {
+			return Collections.emptyList();
+		}
+
+	}
+
+}
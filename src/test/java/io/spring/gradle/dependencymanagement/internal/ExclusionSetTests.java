@@ -0,0 +1,87 @@
+/*
+ * Copyright 2014-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ExclusionSet}.
+ *
+ * @author Andy Wilkinson
+ */
+class ExclusionSetTests {
+
+	@Test
+	void emptySetExcludesNothing() {
+		assertThat(ExclusionSet.EMPTY.excludes("com.example", "alpha")).isFalse();
+	}
+
+	@Test
+	void exclusionMatchesGroupAndArtifact() {
+		ExclusionSet exclusions = ExclusionSet.EMPTY
+			.with(Collections.singleton(new Exclusion("com.example", "alpha")));
+		assertThat(exclusions.excludes("com.example", "alpha")).isTrue();
+		assertThat(exclusions.excludes("com.example", "bravo")).isFalse();
+		assertThat(exclusions.excludes("org.example", "alpha")).isFalse();
+	}
+
+	@Test
+	void wildcardArtifactMatchesAnyArtifactInGroup() {
+		ExclusionSet exclusions = ExclusionSet.EMPTY.with(Collections.singleton(new Exclusion("com.example", "*")));
+		assertThat(exclusions.excludes("com.example", "alpha")).isTrue();
+		assertThat(exclusions.excludes("org.example", "alpha")).isFalse();
+	}
+
+	@Test
+	void wildcardGroupMatchesArtifactInAnyGroup() {
+		ExclusionSet exclusions = ExclusionSet.EMPTY.with(Collections.singleton(new Exclusion("*", "alpha")));
+		assertThat(exclusions.excludes("com.example", "alpha")).isTrue();
+		assertThat(exclusions.excludes("com.example", "bravo")).isFalse();
+	}
+
+	@Test
+	void wildcardGroupAndArtifactMatchesEverything() {
+		ExclusionSet exclusions = ExclusionSet.EMPTY.with(Collections.singleton(new Exclusion("*", "*")));
+		assertThat(exclusions.excludes("com.example", "alpha")).isTrue();
+	}
+
+	@Test
+	void addingExclusionsThatAreAlreadyMatchedReturnsSameSet() {
+		ExclusionSet exclusions = ExclusionSet.EMPTY.with(Collections.singleton(new Exclusion("com.example", "*")));
+		assertThat(exclusions.with(null)).isSameAs(exclusions);
+		assertThat(exclusions.with(Collections.singleton(new Exclusion("com.example", "alpha"))))
+			.isSameAs(exclusions);
+	}
+
+	@Test
+	void addingExclusionsDoesNotModifyOriginalSet() {
+		ExclusionSet original = ExclusionSet.EMPTY.with(Collections.singleton(new Exclusion("com.example", "alpha")));
+		ExclusionSet extended = original.with(
+				Arrays.asList(new Exclusion("com.example", "bravo"), new Exclusion("org.example", "charlie")));
+		assertThat(extended.excludes("com.example", "alpha")).isTrue();
+		assertThat(extended.excludes("com.example", "bravo")).isTrue();
+		assertThat(extended.excludes("org.example", "charlie")).isTrue();
+		assertThat(original.excludes("com.example", "bravo")).isFalse();
+		assertThat(original.excludes("org.example", "charlie")).isFalse();
+	}
+
+}
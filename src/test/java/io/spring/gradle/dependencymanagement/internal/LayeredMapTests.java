@@ -0,0 +1,69 @@
+/*
+ * Copyright 2014-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.entry;
+
+/**
+ * Tests for {@link LayeredMap}.
+ *
+ * @author Andy Wilkinson
+ */
+class LayeredMapTests {
+
+	private final Map<String, String> top = new HashMap<>();
+
+	private final Map<String, String> bottom = new HashMap<>();
+
+	private final LayeredMap map = new LayeredMap(Arrays.asList(this.top, this.bottom));
+
+	@Test
+	void entryInHigherLayerTakesPrecedence() {
+		this.top.put("com.example:alpha", "2.0");
+		this.bottom.put("com.example:alpha", "1.0");
+		this.bottom.put("com.example:bravo", "1.0");
+		assertThat(this.map.get("com.example:alpha")).isEqualTo("2.0");
+		assertThat(this.map.get("com.example:bravo")).isEqualTo("1.0");
+		assertThat(this.map.get("com.example:charlie")).isNull();
+		assertThat(this.map).hasSize(2)
+			.containsOnly(entry("com.example:alpha", "2.0"), entry("com.example:bravo", "1.0"));
+	}
+
+	@Test
+	void changesToALayerAreVisible() {
+		assertThat(this.map).isEmpty();
+		this.bottom.put("com.example:alpha", "1.0");
+		assertThat(this.map).containsOnly(entry("com.example:alpha", "1.0"));
+		this.top.put("com.example:alpha", "2.0");
+		assertThat(this.map).containsOnly(entry("com.example:alpha", "2.0"));
+	}
+
+	@Test
+	void mapIsReadOnly() {
+		assertThatExceptionOfType(UnsupportedOperationException.class)
+			.isThrownBy(() -> this.map.put("com.example:alpha", "1.0"));
+	}
+
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2014-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import io.spring.gradle.dependencymanagement.internal.ManagedVersionIndex.Module;
+import io.spring.gradle.dependencymanagement.internal.maven.MavenPomResolver;
+import org.gradle.api.Project;
+import org.gradle.api.artifacts.Configuration;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ManagedVersionIndex}.
+ *
+ * @author Andy Wilkinson
+ */
+class ManagedVersionIndexTests {
+
+	private final Project project = ProjectBuilder.builder().build();
+
+	private final DependencyManagementContainer container = new DependencyManagementContainer(this.project,
+			new MavenPomResolver(this.project, new DependencyManagementConfigurationContainer(this.project)));
+
+	@Test
+	void configurationManagementTakesPrecedenceOverInheritedAndGlobalManagement() {
+		Configuration parent = this.project.getConfigurations().create("parent");
+		Configuration child = this.project.getConfigurations().create("child").extendsFrom(parent);
+		this.container.addManagedVersion(null, "com.example", "alpha", "1.0", Collections.emptyList());
+		this.container.addManagedVersion(null, "com.example", "bravo", "1.0", Collections.emptyList());
+		this.container.addManagedVersion(null, "com.example", "charlie", "1.0", Collections.emptyList());
+		this.container.addManagedVersion(parent, "com.example", "bravo", "2.0", Collections.emptyList());
+		this.container.addManagedVersion(parent, "com.example", "charlie", "2.0", Collections.emptyList());
+		this.container.addManagedVersion(child, "com.example", "charlie", "3.0", Collections.emptyList());
+		ManagedVersionIndex index = this.container.getManagedVersionIndex(child);
+		assertThat(index.getManagedVersion("com.example", "alpha")).isEqualTo("1.0");
+		assertThat(index.getManagedVersion("com.example", "bravo")).isEqualTo("2.0");
+		assertThat(index.getManagedVersion("com.example", "charlie")).isEqualTo("3.0");
+		assertThat(index.getManagedVersion("com.example", "delta")).isNull();
+		assertThat(index.getManagedVersion("org.example", "alpha")).isNull();
+	}
+
+	@Test
+	void indexIsNoLongerCurrentWhenDependencyManagementIsAdded() {
+		Configuration configuration = this.project.getConfigurations().create("configuration");
+		ManagedVersionIndex index = this.container.getManagedVersionIndex(configuration);
+		assertThat(this.container.isCurrent(index)).isTrue();
+		this.container.addManagedVersion(null, "com.example", "alpha", "1.0", Collections.emptyList());
+		assertThat(this.container.isCurrent(index)).isFalse();
+	}
+
+	@Test
+	void modulesRecordTheirManagedVersionAndWhetherTheyAreDirectDependenciesOrLocalProjects() {
+		ManagedVersionIndex index = ManagedVersionIndex.of(Collections.singletonMap("com.example:alpha", "1.0"),
+				new HashSet<>(Arrays.asList("com.example:alpha", "com.example:bravo")),
+				Collections.singleton("com.example:charlie"), 0, 0);
+		Module alpha = index.getModule("com.example", "alpha");
+		assertThat(alpha.getManagedVersion()).isEqualTo("1.0");
+		assertThat(alpha.isDirectDependency()).isTrue();
+		assertThat(alpha.isLocalProject()).isFalse();
+		Module bravo = index.getModule("com.example", "bravo");
+		assertThat(bravo.getManagedVersion()).isNull();
+		assertThat(bravo.isDirectDependency()).isTrue();
+		assertThat(bravo.isLocalProject()).isFalse();
+		Module charlie = index.getModule("com.example", "charlie");
+		assertThat(charlie.getManagedVersion()).isNull();
+		assertThat(charlie.isDirectDependency()).isFalse();
+		assertThat(charlie.isLocalProject()).isTrue();
+		Module delta = index.getModule("com.example", "delta");
+		assertThat(delta.getManagedVersion()).isNull();
+		assertThat(delta.isDirectDependency()).isFalse();
+		assertThat(delta.isLocalProject()).isFalse();
+	}
+
+}
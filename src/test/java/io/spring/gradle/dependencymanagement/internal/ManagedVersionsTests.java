@@ -0,0 +1,76 @@
+/*
+ * Copyright 2014-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ManagedVersions}.
+ *
+ * @author Andy Wilkinson
+ */
+class ManagedVersionsTests {
+
+	@Test
+	void managedVersionsCanBeRetrievedById() {
+		Map<String, String> versions = new HashMap<>();
+		for (int i = 0; i < 1500; i++) {
+			versions.put("com.example:module-" + i, "1.0." + i);
+		}
+		ManagedVersions managedVersions = ManagedVersions.of(versions);
+		assertThat(managedVersions.size()).isEqualTo(1500);
+		for (int i = 0; i < 1500; i++) {
+			assertThat(managedVersions.get("com.example:module-" + i)).isEqualTo("1.0." + i);
+		}
+		assertThat(managedVersions.get("com.example:module-1500")).isNull();
+	}
+
+	@Test
+	void forEachProvidesEveryIdAndVersion() {
+		Map<String, String> versions = new HashMap<>();
+		versions.put("com.example:alpha", "1.0");
+		versions.put("com.example:bravo", "2.0");
+		versions.put("com.example:charlie", "3.0");
+		Map<String, String> copy = new HashMap<>();
+		ManagedVersions.of(versions).forEach(copy::put);
+		assertThat(copy).isEqualTo(versions);
+	}
+
+	@Test
+	void idsAndVersionsAreInterned() {
+		Map<String, String> versions = new HashMap<>();
+		versions.put(new String("com.example:alpha"), new String("1.0"));
+		Map<String, String> copy = new HashMap<>();
+		ManagedVersions.of(versions).forEach(copy::put);
+		Map.Entry<String, String> entry = copy.entrySet().iterator().next();
+		assertThat(entry.getKey()).isSameAs("com.example:alpha");
+		assertThat(entry.getValue()).isSameAs("1.0");
+	}
+
+	@Test
+	void emptyManagedVersionsHaveNoVersions() {
+		ManagedVersions managedVersions = ManagedVersions.of(new HashMap<>());
+		assertThat(managedVersions.size()).isZero();
+		assertThat(managedVersions.get("com.example:alpha")).isNull();
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2023 the original author or authors.
+ * Copyright 2014-2024 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -276,8 +276,8 @@ class StandardPomDependencyManagementConfigurerTests {
 
 	private NodeAssert configuredPom(String existingPom, PomCustomizationSettings settings) throws Exception {
 		Node pom = new XmlParser().parseText(existingPom);
-		new StandardPomDependencyManagementConfigurer(this.dependencyManagement.getGlobalDependencyManagement(),
-				settings, this.pomResolver, this.project)
+		DependencyManagement dependencyManagement = this.dependencyManagement.getGlobalDependencyManagement();
+		new StandardPomDependencyManagementConfigurer(this.project.provider(dependencyManagement::snapshot), settings)
 			.configurePom(pom);
 		return new NodeAssert(XmlUtil.serialize(pom));
 	}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2014-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal.maven;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.Map;
+
+import io.spring.gradle.dependencymanagement.internal.maven.EffectiveModelBuilder.EffectiveModel;
+
+import io.spring.gradle.dependencymanagement.internal.properties.MapPropertySource;
+import io.spring.gradle.dependencymanagement.org.apache.maven.model.Model;
+import org.gradle.api.Project;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link EffectiveModelCache}.
+ *
+ * @author Andy Wilkinson
+ */
+class EffectiveModelCacheTests {
+
+	private final Project project = ProjectBuilder.builder().build();
+
+	private final EffectiveModelCache cache = EffectiveModelCache.register(this.project.getGradle()).get();
+
+	private final File pom = new File("bom.pom");
+
+	@Test
+	void cacheIsSharedByProjectsInTheSameBuild() {
+		Project child = ProjectBuilder.builder().withParent(this.project).build();
+		assertThat(EffectiveModelCache.register(child.getGradle()).get()).isSameAs(this.cache);
+	}
+
+	@Test
+	void modelIsReusedWhenPropertiesThatWereReadHaveTheSameValue() {
+		EffectiveModel model = effectiveModel(Collections.singletonMap("alpha.version", "1.0"));
+		this.cache.put(this.pom, model);
+		assertThat(this.cache.get(this.pom, new MapPropertySource(Collections.singletonMap("alpha.version", "1.0"))))
+			.isSameAs(model);
+	}
+
+	@Test
+	void modelIsNotReusedWhenAPropertyThatWasReadHasADifferentValue() {
+		this.cache.put(this.pom, effectiveModel(Collections.singletonMap("alpha.version", "1.0")));
+		assertThat(this.cache.get(this.pom, new MapPropertySource(Collections.singletonMap("alpha.version", "2.0"))))
+			.isNull();
+	}
+
+	@Test
+	void modelIsNotReusedWhenAPropertyThatWasNotAvailableNowHasAValue() {
+		this.cache.put(this.pom, effectiveModel(Collections.singletonMap("alpha.version", null)));
+		assertThat(this.cache.get(this.pom, new MapPropertySource(Collections.singletonMap("alpha.version", "2.0"))))
+			.isNull();
+	}
+
+	@Test
+	void modelIsNotReusedForADifferentPom() {
+		this.cache.put(this.pom, effectiveModel(Collections.emptyMap()));
+		assertThat(this.cache.get(new File("other.pom"), new MapPropertySource(Collections.emptyMap()))).isNull();
+	}
+
+	private EffectiveModel effectiveModel(Map<String, String> properties) {
+		return new EffectiveModel(new Model(), properties, Collections.emptySet(), false);
+	}
+
+}
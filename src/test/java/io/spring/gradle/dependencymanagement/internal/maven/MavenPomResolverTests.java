@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2022 the original author or authors.
+ * Copyright 2014-2024 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,8 +20,12 @@ import java.io.File;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 import io.spring.gradle.dependencymanagement.internal.DependencyManagementConfigurationContainer;
+import io.spring.gradle.dependencymanagement.internal.DependencyManagementSettings;
 import io.spring.gradle.dependencymanagement.internal.pom.Coordinates;
 import io.spring.gradle.dependencymanagement.internal.pom.Pom;
 import io.spring.gradle.dependencymanagement.internal.pom.PomReference;
@@ -74,4 +78,83 @@ class MavenPomResolverTests {
 		assertThat(result).hasSize(1);
 	}
 
+	@Test
+	void pomsCanBeResolvedInParallel() {
+		DependencyManagementSettings settings = new DependencyManagementSettings();
+		settings.setResolveBomsInParallel(true);
+		MavenPomResolver resolver = new MavenPomResolver(this.project,
+				new DependencyManagementConfigurationContainer(this.project), settings);
+		List<PomReference> references = Arrays.asList(
+				new PomReference(new Coordinates("test", "alpha-pom-customization-bom", "1.0")),
+				new PomReference(new Coordinates("test", "dependency-management-child", "1.0")),
+				new PomReference(new Coordinates("test", "bravo-pom-customization-bom", "1.0")));
+		List<Pom> result = resolver.resolvePoms(references, new MapPropertySource(Collections.emptyMap()));
+		assertThat(result.stream().map((pom) -> pom.getCoordinates().getArtifactId()).collect(Collectors.toList()))
+			.containsExactly("alpha-pom-customization-bom", "dependency-management-child",
+					"bravo-pom-customization-bom");
+		assertThat(result.get(1).getManagedDependencies()).isNotEmpty();
+	}
+
+	@Test
+	void whenPomsAreResolvedInParallelPropertiesAreLookedUpOnTheCallingThread() {
+		Project project = ProjectBuilder.builder().build();
+		project.getGradle().getStartParameter().setMaxWorkerCount(2);
+		project.getRepositories()
+			.maven((repository) -> repository.setUrl(new File("src/test/resources/maven-repo").getAbsoluteFile()));
+		DependencyManagementSettings settings = new DependencyManagementSettings();
+		settings.setResolveBomsInParallel(true);
+		MavenPomResolver resolver = new MavenPomResolver(project,
+				new DependencyManagementConfigurationContainer(project), settings);
+		List<PomReference> references = Arrays.asList(
+				new PomReference(new Coordinates("test", "overridable-shared-import-bom", "1.0")),
+				new PomReference(new Coordinates("test", "dependency-management-child", "1.0")));
+		Set<Thread> threads = ConcurrentHashMap.newKeySet();
+		List<Pom> result = resolver.resolvePoms(references, (name) -> {
+			threads.add(Thread.currentThread());
+			return null;
+		});
+		assertThat(result).hasSize(2);
+		assertThat(threads).containsExactly(Thread.currentThread());
+	}
+
+	@Test
+	void pomsResolvedWithLightweightResolutionHaveTheSameManagedDependencies() {
+		DependencyManagementSettings settings = new DependencyManagementSettings();
+		settings.setLightweightBomResolution(true);
+		MavenPomResolver lightweightResolver = new MavenPomResolver(this.project,
+				new DependencyManagementConfigurationContainer(this.project), settings);
+		List<PomReference> references = Arrays.asList(
+				new PomReference(new Coordinates("test", "alpha-pom-customization-bom", "1.0")),
+				new PomReference(new Coordinates("test", "dependency-management-child", "1.0")),
+				new PomReference(new Coordinates("test", "direct-exclude-bom", "1.0")));
+		List<Pom> expected = this.resolver.resolvePoms(references, new MapPropertySource(Collections.emptyMap()));
+		List<Pom> actual = lightweightResolver.resolvePoms(references, new MapPropertySource(Collections.emptyMap()));
+		assertThat(actual).hasSameSizeAs(expected);
+		for (int i = 0; i < expected.size(); i++) {
+			assertThat(managedVersions(actual.get(i))).isNotEmpty().isEqualTo(managedVersions(expected.get(i)));
+		}
+	}
+
+	@Test
+	void overriddenVersionsOfAnImportAreOnlyRecordedForTheBomThatOverrodeThem() {
+		List<PomReference> references = Arrays.asList(
+				new PomReference(new Coordinates("test", "overridable-shared-import-bom", "1.0"),
+						new MapPropertySource(Collections.singletonMap("shared-import-bom.version", "2.0"))),
+				new PomReference(new Coordinates("test", "fixed-shared-import-bom", "1.0")));
+		List<Pom> result = this.resolver.resolvePoms(references, new MapPropertySource(Collections.emptyMap()));
+		assertThat(result).hasSize(2);
+		assertThat(managedVersions(result.get(0))).containsExactly("alpha:alpha:2.0");
+		assertThat(result.get(0).getOverriddenManagedDependencies()).hasSize(1);
+		assertThat(managedVersions(result.get(1))).containsExactly("alpha:alpha:2.0");
+		assertThat(result.get(1).getOverriddenManagedDependencies()).isEmpty();
+	}
+
+	private List<String> managedVersions(Pom pom) {
+		return pom.getManagedDependencies()
+			.stream()
+			.map((dependency) -> dependency.getCoordinates().getGroupId() + ":"
+					+ dependency.getCoordinates().getArtifactId() + ":" + dependency.getCoordinates().getVersion())
+			.collect(Collectors.toList());
+	}
+
 }
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2014-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal.maven;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Random;
+
+import io.spring.gradle.dependencymanagement.internal.Exclusion;
+import io.spring.gradle.dependencymanagement.internal.maven.EffectiveModelBuilder.EffectiveModel;
+import io.spring.gradle.dependencymanagement.internal.pom.Coordinates;
+import io.spring.gradle.dependencymanagement.internal.pom.Dependency;
+import io.spring.gradle.dependencymanagement.internal.pom.Pom;
+import io.spring.gradle.dependencymanagement.internal.properties.MapPropertySource;
+import io.spring.gradle.dependencymanagement.org.apache.maven.model.Model;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link PersistentPomCache}.
+ *
+ * @author Andy Wilkinson
+ */
+class PersistentPomCacheTests {
+
+	@TempDir
+	File temp;
+
+	private File bom;
+
+	private File parent;
+
+	@BeforeEach
+	void createPoms() throws IOException {
+		this.bom = writePom("bom.pom", "<project/>");
+		this.parent = writePom("parent.pom", "<project></project>");
+	}
+
+	@Test
+	void pomIsReadFromDiskByANewCache() {
+		new PersistentPomCache(new File(this.temp, "cache")).put(this.bom,
+				effectiveModel(Collections.singletonMap("alpha.version", "1.0")), pom());
+		Pom pom = new PersistentPomCache(new File(this.temp, "cache")).get(this.bom,
+				new MapPropertySource(Collections.singletonMap("alpha.version", "1.0")));
+		assertThat(pom).isNotNull();
+		assertThat(pom.getCoordinates().getVersion()).isEqualTo("1.0.0");
+		assertThat(pom.getManagedDependencies()).hasSize(1);
+		Dependency dependency = pom.getManagedDependencies().get(0);
+		assertThat(dependency.getCoordinates().getGroupAndArtifactId()).isEqualTo("com.example:alpha");
+		assertThat(dependency.getClassifier()).isNull();
+		assertThat(dependency.getExclusions()).containsExactly(new Exclusion("com.example", "bravo"));
+		assertThat(pom.getProperties()).containsEntry("alpha.version", "1.0");
+	}
+
+	@Test
+	void pomThatHasBeenReadFromDiskIsReusedWithoutReadingItAgain() throws IOException {
+		new PersistentPomCache(new File(this.temp, "cache")).put(this.bom, effectiveModel(Collections.emptyMap()),
+				pom());
+		PersistentPomCache cache = new PersistentPomCache(new File(this.temp, "cache"));
+		Pom pom = cache.get(this.bom, new MapPropertySource(Collections.emptyMap()));
+		assertThat(pom).isNotNull();
+		for (File file : new File(this.temp, "cache").listFiles()) {
+			Files.delete(file.toPath());
+		}
+		assertThat(cache.get(this.bom, new MapPropertySource(Collections.emptyMap()))).isSameAs(pom);
+	}
+
+	@Test
+	void pomIsNotReusedWhenAPropertyThatWasReadHasADifferentValue() {
+		PersistentPomCache cache = new PersistentPomCache(new File(this.temp, "cache"));
+		cache.put(this.bom, effectiveModel(Collections.singletonMap("alpha.version", "1.0")), pom());
+		assertThat(cache.get(this.bom, new MapPropertySource(Collections.singletonMap("alpha.version", "2.0"))))
+			.isNull();
+	}
+
+	@Test
+	void pomIsNotReusedWhenAParentPomHasChanged() throws IOException {
+		new PersistentPomCache(new File(this.temp, "cache")).put(this.bom, effectiveModel(Collections.emptyMap()),
+				pom());
+		writePom("parent.pom", "<project><modelVersion>4.0.0</modelVersion></project>");
+		assertThat(new PersistentPomCache(new File(this.temp, "cache")).get(this.bom,
+				new MapPropertySource(Collections.emptyMap())))
+			.isNull();
+	}
+
+	@Test
+	void pomIsNotCachedWhenASnapshotWasResolved() {
+		PersistentPomCache cache = new PersistentPomCache(new File(this.temp, "cache"));
+		cache.put(this.bom, new EffectiveModel(new Model(), Collections.emptyMap(),
+				new LinkedHashSet<>(Arrays.asList(this.bom, this.parent)), true), pom());
+		assertThat(cache.get(this.bom, new MapPropertySource(Collections.emptyMap()))).isNull();
+	}
+
+	@Test
+	void pomIsStoredInTheConfiguredForm() {
+		new PersistentPomCache(new File(this.temp, "cache"),
+				(pom) -> new Pom(pom.getCoordinates(), pom.getManagedDependencies(), pom.getDependencies(),
+						Collections.emptyMap()))
+			.put(this.bom, effectiveModel(Collections.emptyMap()), pom());
+		Pom pom = new PersistentPomCache(new File(this.temp, "cache")).get(this.bom,
+				new MapPropertySource(Collections.emptyMap()));
+		assertThat(pom).isNotNull();
+		assertThat(pom.getManagedDependencies()).hasSize(1);
+		assertThat(pom.getProperties()).isEmpty();
+	}
+
+	@Test
+	void cacheFileThatContainsGarbageIsTreatedAsAMissAndDeleted() throws IOException {
+		File cacheFile = writeCacheFile((output) -> {
+			output.writeInt(1);
+			byte[] garbage = new byte[256];
+			new Random(0).nextBytes(garbage);
+			output.write(garbage);
+		});
+		assertThat(new PersistentPomCache(new File(this.temp, "cache")).get(this.bom,
+				new MapPropertySource(Collections.emptyMap())))
+			.isNull();
+		assertThat(cacheFile).doesNotExist();
+	}
+
+	@Test
+	void cacheFileWithAnOverriddenManagedDependencyThatDoesNotExistIsTreatedAsAMissAndDeleted() throws IOException {
+		File cacheFile = writeCacheFile((output) -> {
+			output.writeInt(1);
+			output.writeInt(0);
+			output.writeInt(0);
+			for (int i = 0; i < 3; i++) {
+				output.writeBoolean(false);
+			}
+			output.writeInt(0);
+			output.writeInt(1);
+			output.writeInt(7);
+		});
+		assertThat(new PersistentPomCache(new File(this.temp, "cache")).get(this.bom,
+				new MapPropertySource(Collections.emptyMap())))
+			.isNull();
+		assertThat(cacheFile).doesNotExist();
+	}
+
+	private File writeCacheFile(CacheFileContent content) throws IOException {
+		new PersistentPomCache(new File(this.temp, "cache")).put(this.bom, effectiveModel(Collections.emptyMap()),
+				pom());
+		File[] cacheFiles = new File(this.temp, "cache").listFiles();
+		assertThat(cacheFiles).hasSize(1);
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream output = new DataOutputStream(bytes)) {
+			output.writeInt(2);
+			content.write(output);
+		}
+		Files.write(cacheFiles[0].toPath(), bytes.toByteArray());
+		return cacheFiles[0];
+	}
+
+	private File writePom(String name, String content) throws IOException {
+		File pom = new File(this.temp, name);
+		Files.write(pom.toPath(), content.getBytes(StandardCharsets.UTF_8));
+		return pom;
+	}
+
+	private EffectiveModel effectiveModel(Map<String, String> properties) {
+		return new EffectiveModel(new Model(), properties, new LinkedHashSet<>(Arrays.asList(this.bom, this.parent)),
+				false);
+	}
+
+	private Pom pom() {
+		Dependency alpha = new Dependency(new Coordinates("com.example", "alpha", "1.0"), false, "jar", null, null,
+				Collections.singleton(new Exclusion("com.example", "bravo")));
+		return new Pom(new Coordinates("com.example", "bom", "1.0.0"), Collections.singletonList(alpha),
+				Collections.emptyList(), Collections.singletonMap("alpha.version", "1.0"));
+	}
+
+	@FunctionalInterface
+	private interface CacheFileContent {
+
+		void write(DataOutputStream output) throws IOException;
+
+	}
+
+}
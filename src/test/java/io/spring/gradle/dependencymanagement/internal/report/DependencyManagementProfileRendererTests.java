@@ -0,0 +1,84 @@
+/*
+ * Copyright 2014-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.gradle.dependencymanagement.internal.report;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import io.spring.gradle.dependencymanagement.internal.DependencyManagementProfiler.ConfigurationProfile;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link DependencyManagementProfileRenderer}.
+ *
+ * @author Andy Wilkinson
+ */
+class DependencyManagementProfileRendererTests {
+
+	private final StringWriter textOutput = new StringWriter();
+
+	private final DependencyManagementProfileRenderer renderer = new DependencyManagementProfileRenderer(
+			new PrintWriter(this.textOutput));
+
+	@Test
+	void projectHeaderForRootProject() {
+		this.renderer.startProject(":", true);
+		assertThat(outputLines()).containsExactly("", "------------------------------------------------------------",
+				"Root project", "------------------------------------------------------------", "");
+	}
+
+	@Test
+	void noProfiles() {
+		this.renderer.renderProfiles(Collections.emptyList());
+		assertThat(outputLines()).containsExactly("No dependency management has been applied", "");
+	}
+
+	@Test
+	void profilesAreRenderedAsATable() {
+		this.renderer.renderProfiles(Arrays.asList(new ConfigurationProfile("runtimeClasspath", 2_000_000, 1_500_000,
+				500_000, 12), new ConfigurationProfile("compileClasspath", 1_000_000, 0, 200_000, 7)));
+		assertThat(outputLines()).containsExactly(
+				"Configuration     Total (ms)  Boms (ms)  Exclusions (ms)  Versions (ms)  Callbacks",
+				"runtimeClasspath         4.0        2.0              1.5            0.5         12",
+				"compileClasspath         1.2        1.0              0.0            0.2          7", "");
+	}
+
+	private List<String> outputLines() {
+		BufferedReader reader = new BufferedReader(new StringReader(this.textOutput.toString()));
+		String line;
+		List<String> lines = new ArrayList<>();
+		try {
+			while ((line = reader.readLine()) != null) {
+				lines.add(line);
+			}
+		}
+		catch (IOException ex) {
+			throw new RuntimeException(ex);
+		}
+		return lines;
+	}
+
+}
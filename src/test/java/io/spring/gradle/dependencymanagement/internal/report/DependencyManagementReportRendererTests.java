@@ -28,7 +28,6 @@ import java.util.List;
 import java.util.Map;
 
 import org.gradle.api.Project;
-import org.gradle.api.artifacts.Configuration;
 import org.gradle.testfixtures.ProjectBuilder;
 import org.junit.jupiter.api.Test;
 
@@ -98,8 +97,7 @@ class DependencyManagementReportRendererTests {
 
 	@Test
 	void configurationDependencyManagementWitNoManagedVersionsAtAll() {
-		Configuration configuration = ProjectBuilder.builder().build().getConfigurations().create("test");
-		this.renderer.renderConfigurationManagedVersions(Collections.emptyMap(), configuration, Collections.emptyMap());
+		this.renderer.renderConfigurationManagedVersions(Collections.emptyMap(), "test", Collections.emptyMap());
 		assertThat(outputLines()).containsExactly("test - Dependency management for the test configuration",
 				"No dependency management", "");
 	}
@@ -107,8 +105,7 @@ class DependencyManagementReportRendererTests {
 	@Test
 	void configurationDependencyManagementWithOnlyGlobalManagedVersions() {
 		Map<String, String> managedVersions = Collections.singletonMap("a:b", "1.0");
-		Configuration configuration = ProjectBuilder.builder().build().getConfigurations().create("test");
-		this.renderer.renderConfigurationManagedVersions(managedVersions, configuration, managedVersions);
+		this.renderer.renderConfigurationManagedVersions(managedVersions, "test", managedVersions);
 		assertThat(outputLines()).containsExactly("test - Dependency management for the test configuration",
 				"No configuration-specific dependency management", "");
 	}
@@ -118,8 +115,7 @@ class DependencyManagementReportRendererTests {
 		Map<String, String> managedVersions = new HashMap<>();
 		managedVersions.put("com.example:bravo", "1.0.0");
 		managedVersions.put("com.example:alpha", "1.2.3");
-		Configuration configuration = ProjectBuilder.builder().build().getConfigurations().create("test");
-		this.renderer.renderConfigurationManagedVersions(managedVersions, configuration, Collections.emptyMap());
+		this.renderer.renderConfigurationManagedVersions(managedVersions, "test", Collections.emptyMap());
 		assertThat(outputLines()).containsExactly("test - Dependency management for the test configuration",
 				"	com.example:alpha 1.2.3", "	com.example:bravo 1.0.0", "");
 	}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2022 the original author or authors.
+ * Copyright 2014-2024 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -22,7 +22,6 @@ import io.spring.gradle.dependencymanagement.internal.DependencyManagementConfig
 import io.spring.gradle.dependencymanagement.internal.DependencyManagementContainer;
 import io.spring.gradle.dependencymanagement.internal.maven.MavenPomResolver;
 import org.gradle.api.Project;
-import org.gradle.api.artifacts.Configuration;
 import org.gradle.testfixtures.ProjectBuilder;
 import org.junit.jupiter.api.Test;
 
@@ -63,15 +62,15 @@ class DependencyManagementReportTaskTests {
 	@Test
 	@SuppressWarnings("unchecked")
 	void reportForProjectWithConfigurations() {
-		Configuration configurationOne = this.project.getConfigurations().create("second");
-		Configuration configurationTwo = this.project.getConfigurations().create("first");
+		this.project.getConfigurations().create("second");
+		this.project.getConfigurations().create("first");
 		this.task.report();
 		then(this.renderer).should().startProject(this.project.getPath(), this.project.getDescription(), true);
 		then(this.renderer).should().renderGlobalManagedVersions(any(Map.class));
 		then(this.renderer).should()
-			.renderConfigurationManagedVersions(any(Map.class), eq(configurationTwo), any(Map.class));
+			.renderConfigurationManagedVersions(any(Map.class), eq("first"), any(Map.class));
 		then(this.renderer).should()
-			.renderConfigurationManagedVersions(any(Map.class), eq(configurationOne), any(Map.class));
+			.renderConfigurationManagedVersions(any(Map.class), eq("second"), any(Map.class));
 		then(this.renderer).shouldHaveNoMoreInteractions();
 	}
 